@@ -0,0 +1,123 @@
+package edu.uob;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Board shared by the benchmarks: a model of the given storage, size, threshold and players with fill% of its cells
+// claimed in a fixed random order. Claiming goes straight through setCellOwner so the filled board never has a winner
+// Thresholds larger than the board are cut down to its size. At least two cells are always left empty, so claiming one
+// of them in a benchmark can never end the game in a draw
+@State(Scope.Thread)
+public class OXOBenchmarkBoard {
+    @Param({ "LIST", "BITBOARD", "SPARSE" })
+    public OXOModel.Storage storage;
+
+    // Boards are square, any of 3 to 9 can be given with -p size=...
+    @Param({ "3", "6", "9" })
+    public int size;
+
+    @Param({ "3", "5" })
+    public int threshold;
+
+    @Param({ "2", "3" })
+    public int players;
+
+    // Percentage of the cells claimed before measuring
+    @Param({ "0", "50", "90" })
+    public int fill;
+
+    OXOModel model;
+    OXOController controller;
+    // Identifier, row and column of every cell left empty, and the claimed cells
+    String[] emptyCommands;
+    ByteBuffer[] emptyBytes;
+    int[] emptyRows;
+    int[] emptyCols;
+    int[] claimedRows;
+    int[] claimedCols;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createBoard() {
+        model = new OXOModel(size, size, Math.min(threshold, size), storage);
+        for (int p = 0; p < players; p++) {
+            model.addPlayer(new OXOPlayer((char) ('A' + p)));
+        }
+        controller = new OXOController(model);
+        int cells = size * size;
+        int[] order = new int[cells];
+        for (int i = 0; i < cells; i++) order[i] = i;
+        SplittableRandom random = new SplittableRandom(cells * 31L + players);
+        for (int i = cells - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        int claimed = Math.min(cells * fill / 100, cells - 2);
+        claimedRows = new int[claimed];
+        claimedCols = new int[claimed];
+        emptyCommands = new String[cells - claimed];
+        emptyBytes = new ByteBuffer[cells - claimed];
+        emptyRows = new int[cells - claimed];
+        emptyCols = new int[cells - claimed];
+        for (int i = 0; i < cells; i++) {
+            int row = order[i] / size;
+            int col = order[i] % size;
+            if (i < claimed) {
+                claimedRows[i] = row;
+                claimedCols[i] = col;
+            } else {
+                emptyRows[i - claimed] = row;
+                emptyCols[i - claimed] = col;
+                emptyCommands[i - claimed] = OXOController.cellIdentifier(row, col);
+                byte[] bytes = emptyCommands[i - claimed].getBytes(StandardCharsets.US_ASCII);
+                emptyBytes[i - claimed] = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+            }
+        }
+        refill();
+    }
+
+    // Puts the claimed cells back after a benchmark has cleared the board
+    void refill() {
+        for (int i = 0; i < claimedRows.length; i++) {
+            model.setCellOwner(claimedRows[i], claimedCols[i], model.getPlayerByNumber(i % players));
+        }
+        model.setCurrentPlayerNumber(claimedRows.length % players);
+    }
+
+    // Cycles through the empty cells so that successive invocations don't all hit the same one
+    int nextEmpty() {
+        next = next + 1 < emptyRows.length ? next + 1 : 0;
+        return next;
+    }
+
+    // Takes back a move a benchmark made through the controller, so the history doesn't grow either
+    OXOPlayer takeBack() {
+        OXOPlayer winner = model.getWinner();
+        controller.undo();
+        return winner;
+    }
+
+    // Claimed cells in turn, or every cell when nothing is claimed
+    int nextProbe() {
+        int count = claimedRows.length > 0 ? claimedRows.length : emptyRows.length;
+        next = next + 1 < count ? next + 1 : 0;
+        return next;
+    }
+
+    int probeRow(int probe) {
+        return claimedRows.length > 0 ? claimedRows[probe] : emptyRows[probe];
+    }
+
+    int probeCol(int probe) {
+        return claimedRows.length > 0 ? claimedCols[probe] : emptyCols[probe];
+    }
+}
@@ -0,0 +1,71 @@
+package edu.uob;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OXOControllerBenchmarks {
+
+    // A full move: parse, claim, win and draw checks, next player. The move is undone afterwards
+    @Benchmark
+    public OXOPlayer handleIncomingCommand(OXOBenchmarkBoard board) throws OXOMoveException {
+        int cell = board.nextEmpty();
+        board.controller.handleIncomingCommand(board.emptyCommands[cell]);
+        return board.takeBack();
+    }
+
+    // The same move read from a direct buffer, as it would arrive from the network
+    @Benchmark
+    public OXOPlayer handleIncomingBytes(OXOBenchmarkBoard board) throws OXOMoveException {
+        int cell = board.nextEmpty();
+        board.controller.handleIncomingCommand(board.emptyBytes[cell]);
+        return board.takeBack();
+    }
+
+    // The same move with the parsing already done
+    @Benchmark
+    public OXOPlayer handleIncomingCoordinates(OXOBenchmarkBoard board) throws OXOMoveException {
+        int cell = board.nextEmpty();
+        board.controller.handleIncomingCommand(board.emptyRows[cell], board.emptyCols[cell]);
+        return board.takeBack();
+    }
+
+    // A move taken back and made again from the history, then taken back for the next invocation
+    @Benchmark
+    public OXOPlayer undoRedo(OXOBenchmarkBoard board) throws OXOMoveException {
+        int cell = board.nextEmpty();
+        board.controller.handleIncomingCommand(board.emptyRows[cell], board.emptyCols[cell]);
+        board.controller.undo();
+        board.controller.redo();
+        return board.takeBack();
+    }
+
+    // Invalid input turned away with a result code instead of an exception
+    @Benchmark
+    public OXOMoveResult tryInvalidCommand(OXOBenchmarkBoard board) {
+        return board.controller.tryIncomingCommand("z9");
+    }
+
+    // Mostly the full line walk, only a cell that has just been claimed can use the run index
+    @Benchmark
+    public boolean checkWin(OXOBenchmarkBoard board) {
+        int probe = board.nextProbe();
+        return board.controller.checkWin(board.probeRow(probe), board.probeCol(probe));
+    }
+
+    @Benchmark
+    public boolean checkDraw(OXOBenchmarkBoard board) {
+        return board.controller.checkDraw();
+    }
+}
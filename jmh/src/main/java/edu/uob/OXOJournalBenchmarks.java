@@ -0,0 +1,61 @@
+package edu.uob;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Cost of journaling, compare with OXOControllerBenchmarks.handleIncomingCommand on the same board
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OXOJournalBenchmarks {
+
+    @State(Scope.Thread)
+    public static class JournalledBoard extends OXOBenchmarkBoard {
+        Path directory;
+        OXOJournal journal;
+
+        @Setup(Level.Trial)
+        public void openJournal() throws IOException {
+            directory = Files.createTempDirectory("oxo-journal");
+            journal = new OXOJournal(directory);
+            journal.attach(model);
+        }
+
+        @TearDown(Level.Trial)
+        public void deleteJournal() throws IOException {
+            journal.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    // A move and the changes that take it back, every one of them journalled
+    @Benchmark
+    public OXOPlayer handleIncomingCommand(JournalledBoard board) throws OXOMoveException {
+        int cell = board.nextEmpty();
+        board.controller.handleIncomingCommand(board.emptyCommands[cell]);
+        return board.takeBack();
+    }
+}
@@ -0,0 +1,62 @@
+package edu.uob;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OXOModelBenchmarks {
+
+    // Refills the board before every reset. Per invocation setup costs a little accuracy at this scale but there is
+    // no other way to reset a filled board each time without measuring the refill too
+    @State(Scope.Thread)
+    public static class FilledBoard extends OXOBenchmarkBoard {
+        @Setup(Level.Invocation)
+        public void fillAgain() {
+            refill();
+        }
+    }
+
+    @Benchmark
+    public int reset(FilledBoard board) {
+        board.model.reset();
+        return board.model.getNumberOfOccupiedCells();
+    }
+
+    // Standard boards can't grow past 9, at that size only the refused addRow is measured
+    @Benchmark
+    public int addAndRemoveRow(OXOBenchmarkBoard board) {
+        OXOModel model = board.model;
+        int rows = model.getNumberOfRows();
+        model.addRow();
+        if (model.getNumberOfRows() > rows) {
+            model.removeRow();
+        }
+        return model.getNumberOfRows();
+    }
+
+    @Benchmark
+    public int addAndRemoveColumn(OXOBenchmarkBoard board) {
+        OXOModel model = board.model;
+        int columns = model.getNumberOfColumns();
+        model.addColumn();
+        if (model.getNumberOfColumns() > columns) {
+            model.removeColumn();
+        }
+        return model.getNumberOfColumns();
+    }
+}
@@ -0,0 +1,76 @@
+package edu.uob;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Moves per second through one session manager with every core playing its own games, the total over all threads
+// is the server's sustained move rate. Use -t to try other thread counts
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class OXOSessionBenchmarks {
+
+    @State(Scope.Benchmark)
+    public static class Server {
+        final OXOSessionManager manager = new OXOSessionManager();
+    }
+
+    // Each thread plays games in sessions of its own, looking its session up by id for every move as a server would
+    @State(Scope.Thread)
+    public static class Player {
+        @Param({ "3", "9" })
+        public int size;
+
+        // How many sessions each thread switches between
+        @Param({ "1", "64" })
+        public int sessionsPerThread;
+
+        long[] ids;
+        int session;
+        int cell;
+
+        @Setup(Level.Trial)
+        public void createSessions(Server server) {
+            ids = new long[sessionsPerThread];
+            for (int i = 0; i < sessionsPerThread; i++) {
+                ids[i] = server.manager.create(size, size, size, 2).getId();
+            }
+        }
+    }
+
+    @Benchmark
+    public OXOMoveResult move(Server server, Player player) {
+        OXOSession session = server.manager.get(player.ids[player.session]);
+        player.session = player.session + 1 < player.ids.length ? player.session + 1 : 0;
+        int cell = player.cell;
+        if (player.session == 0) {
+            player.cell = cell + 1 < player.size * player.size ? cell + 1 : 0;
+        }
+        OXOMoveResult result = session.tryMove(cell / player.size, cell % player.size);
+        if (result != OXOMoveResult.OK) {
+            session.lock();
+            try {
+                session.getController().reset();
+            } finally {
+                session.unlock();
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+package edu.uob;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class OXOViewBenchmarks {
+
+    // The view paints into an off-screen image the size of the game's window
+    @State(Scope.Thread)
+    public static class PaintedBoard extends OXOBenchmarkBoard {
+        OXOView view;
+        BufferedImage image;
+        Graphics2D graphics;
+
+        @Setup(Level.Trial)
+        public void createView() {
+            view = new OXOView(model);
+            view.setSize(250, 300);
+            image = new BufferedImage(250, 300, BufferedImage.TYPE_INT_RGB);
+            graphics = image.createGraphics();
+        }
+
+        @TearDown(Level.Trial)
+        public void disposeGraphics() {
+            graphics.dispose();
+        }
+    }
+
+    @Benchmark
+    public BufferedImage paintComponent(PaintedBoard board) {
+        board.graphics.setClip(null);
+        board.view.paintComponent(board.graphics);
+        return board.image;
+    }
+
+    // A repaint after refresh() found one changed cell, clipped to that cell
+    @Benchmark
+    public BufferedImage paintOneCell(PaintedBoard board) {
+        board.graphics.setClip(80, 70, 24, 30);
+        board.view.paintComponent(board.graphics);
+        return board.image;
+    }
+
+    // Off-screen thumbnails and log lines, as drawn for saved games
+    @State(Scope.Thread)
+    public static class RenderedBoard extends OXOBenchmarkBoard {
+        OXORenderer renderer;
+
+        @Setup(Level.Trial)
+        public void createRenderer() {
+            renderer = new OXORenderer(250, 300);
+        }
+    }
+
+    @Benchmark
+    public BufferedImage renderImage(RenderedBoard board) {
+        return board.renderer.renderImage(board.model);
+    }
+
+    @Benchmark
+    public CharSequence renderText(RenderedBoard board) {
+        return board.renderer.renderText(board.model);
+    }
+
+    // A keystroke that changed nothing
+    @Benchmark
+    public OXOView refreshUnchanged(PaintedBoard board) {
+        board.view.refresh();
+        return board.view;
+    }
+}
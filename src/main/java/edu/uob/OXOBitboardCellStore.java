@@ -0,0 +1,163 @@
+package edu.uob;
+
+import java.util.Arrays;
+import java.util.List;
+
+// One bitset per player plus an occupancy mask, cell (r,c) lives at bit r*stride+c
+// The stride is at least 9 so that growing the board up to the usual cap never has to move any bits
+class OXOBitboardCellStore implements OXOCellStore {
+    private static final int MIN_STRIDE = 9;
+
+    private final List<OXOPlayer> players;
+    private int numberOfRows;
+    private int numberOfColumns;
+    private final int stride;
+    private long[] occupied;
+    private long[][] boards;
+
+    OXOBitboardCellStore(int numberOfRows, int numberOfColumns, List<OXOPlayer> players) {
+        this.players = players;
+        this.numberOfRows = numberOfRows;
+        this.numberOfColumns = numberOfColumns;
+        stride = Math.max(MIN_STRIDE, numberOfColumns);
+        occupied = new long[wordsFor(Math.max(MIN_STRIDE, numberOfRows))];
+        boards = new long[0][];
+    }
+
+    public int getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    public int getNumberOfColumns() {
+        return numberOfColumns;
+    }
+
+    public OXOPlayer get(int rowNumber, int colNumber) {
+        int index = getOwnerIndex(rowNumber, colNumber);
+        return index < 0 ? null : players.get(index);
+    }
+
+    // Number of the player owning the cell, or -1 if it is empty
+    int getOwnerIndex(int rowNumber, int colNumber) {
+        int bit = bitOf(rowNumber, colNumber);
+        int word = bit >>> 6;
+        long mask = 1L << bit;
+        if ((occupied[word] & mask) == 0) {
+            return -1;
+        }
+        for (int i = 0; i < boards.length; i++) {
+            if ((boards[i][word] & mask) != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // An unknown player is rejected before anything changes, so the cell keeps its owner
+    public void set(int rowNumber, int colNumber, OXOPlayer player) {
+        int bit = bitOf(rowNumber, colNumber);
+        int index = player == null ? -1 : players.indexOf(player);
+        if (player != null && index < 0) {
+            throw new IllegalArgumentException("Player " + player.getPlayingLetter() + " has not been added to the model");
+        }
+        clearBit(bit);
+        if (player == null) {
+            return;
+        }
+        if (index >= boards.length) {
+            growBoards(index + 1);
+        }
+        boards[index][bit >>> 6] |= 1L << bit;
+        occupied[bit >>> 6] |= 1L << bit;
+    }
+
+    public void addRow() {
+        numberOfRows++;
+        int needed = wordsFor(numberOfRows);
+        if (needed > occupied.length) {
+            resize(needed);
+        }
+    }
+
+    public void addColumn() {
+        if (numberOfColumns == stride) {
+            throw new IllegalStateException("Bitboard rows cannot grow beyond " + stride + " columns");
+        }
+        numberOfColumns++;
+    }
+
+    public void removeRow() {
+        numberOfRows--;
+        for (int j = 0; j < numberOfColumns; j++) {
+            clearBit(numberOfRows * stride + j);
+        }
+    }
+
+    public void removeColumn() {
+        numberOfColumns--;
+        for (int i = 0; i < numberOfRows; i++) {
+            clearBit(i * stride + numberOfColumns);
+        }
+    }
+
+    public OXOBitboardCellStore copy(List<OXOPlayer> players) {
+        OXOBitboardCellStore copy = new OXOBitboardCellStore(numberOfRows, stride, players);
+        copy.numberOfColumns = numberOfColumns;
+        copy.occupied = occupied.clone();
+        copy.boards = new long[boards.length][];
+        for (int i = 0; i < boards.length; i++) {
+            copy.boards[i] = boards[i].clone();
+        }
+        return copy;
+    }
+
+    public void forEachOccupied(OXOCellVisitor visitor) {
+        for (int i = 0; i < getNumberOfRows(); i++) {
+            for (int j = 0; j < getNumberOfColumns(); j++) {
+                OXOPlayer owner = get(i, j);
+                if (owner != null) visitor.visit(i, j, owner);
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(occupied, 0L);
+        for (long[] board : boards) {
+            Arrays.fill(board, 0L);
+        }
+    }
+
+    private int bitOf(int rowNumber, int colNumber) {
+        if (rowNumber < 0 || rowNumber >= numberOfRows || colNumber < 0 || colNumber >= numberOfColumns) {
+            throw new IndexOutOfBoundsException("Cell [" + rowNumber + "," + colNumber + "] is outside the board");
+        }
+        return rowNumber * stride + colNumber;
+    }
+
+    private void clearBit(int bit) {
+        long mask = ~(1L << bit);
+        occupied[bit >>> 6] &= mask;
+        for (long[] board : boards) {
+            board[bit >>> 6] &= mask;
+        }
+    }
+
+    private int wordsFor(int rows) {
+        return (rows * stride + 63) >>> 6;
+    }
+
+    private void growBoards(int count) {
+        int oldCount = boards.length;
+        boards = Arrays.copyOf(boards, count);
+        for (int i = oldCount; i < count; i++) {
+            boards[i] = new long[occupied.length];
+        }
+    }
+
+    private void resize(int words) {
+        occupied = Arrays.copyOf(occupied, words);
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = Arrays.copyOf(boards[i], words);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package edu.uob;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+
+// Draws a board the way the game window shows it, for OXOView and for OXORenderer's off-screen images, so the two
+// always share one layout. A painter keeps the strings it has drawn, so it belongs to one view or renderer and is
+// never used by two threads at once
+final class OXOBoardPainter {
+    static final int FONT_SIZE = 20;
+    static final Font FONT = new Font("SansSerif", Font.PLAIN, FONT_SIZE);
+    static final int MARGIN = 50;
+    // Strip along the bottom that the message is drawn in
+    static final int MESSAGE_HEIGHT = FONT_SIZE + 14;
+    // What a piece of text is, it is made from the kind and the letter in it
+    static final int CELL_LETTER = 0;
+    static final int LABEL = 1;
+    static final int TURN_MESSAGE = 2;
+    static final int WINNER_MESSAGE = 3;
+    static final int DRAW_MESSAGE = 4;
+
+    // Letters below this have their strings kept, for each kind of text
+    private static final int CACHED_LETTERS = 128;
+
+    // Every string with an ASCII letter painted so far, by kind and then letter, so painting again builds none
+    private final String[][] texts = new String[DRAW_MESSAGE + 1][];
+
+    // Only what falls inside the clip is drawn
+    void paint(Graphics g, OXOModel model, int width, int height) {
+        g.setFont(FONT);
+
+        // Clear the whole board
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, width, height);
+
+        float horiSpacing = (float)(width-MARGIN*2) / model.getNumberOfColumns();
+        float vertSpacing = (float)(height-MARGIN*2) / model.getNumberOfRows();
+
+        // Draw horizontal lines
+        g.setColor(Color.BLACK);
+        for (int i = 0; i < model.getNumberOfRows() - 1; i++) {
+            g.drawLine(MARGIN, (int)(MARGIN+vertSpacing*(i+1)), width-MARGIN, (int)(MARGIN+vertSpacing*(i+1)));
+        }
+        // Draw vertical lines
+        for (int i = 0; i < model.getNumberOfColumns() - 1; i++) {
+            g.drawLine((int)(MARGIN+horiSpacing*(i+1)), MARGIN, (int)(MARGIN+horiSpacing*(i+1)), height-MARGIN);
+        }
+
+        // Draw the row labels
+        if (g.hitClip(0, 0, MARGIN, height)) {
+            for (int i = 0; i < model.getNumberOfRows(); i++) {
+                drawText(g, LABEL, (char)('a'+i), MARGIN/2, (int)(MARGIN-2+(FONT_SIZE/2.0f)+vertSpacing*(i+0.5)));
+            }
+        }
+
+        // Draw the column labels
+        if (g.hitClip(0, 0, width, MARGIN)) {
+            for (int i = 0; i < model.getNumberOfColumns(); i++) {
+                drawText(g, LABEL, (char)('1'+i), (int)(MARGIN+2-(FONT_SIZE/2.0f)+horiSpacing*(i+0.5)), (int)((MARGIN/2)+(FONT_SIZE/2.0f)));
+            }
+        }
+
+        // Draw the board state
+        for (int colNumber = 0; colNumber < model.getNumberOfColumns(); colNumber++) {
+            for (int rowNumber = 0; rowNumber < model.getNumberOfRows(); rowNumber++) {
+                int xpos = cellX(colNumber, horiSpacing);
+                int ypos = cellY(rowNumber, vertSpacing);
+                if (!g.hitClip(xpos - 2, ypos - FONT_SIZE, FONT_SIZE + 4, FONT_SIZE + FONT_SIZE / 2)) continue;
+                OXOPlayer cellOwner = model.getCellOwner(rowNumber, colNumber);
+                if (cellOwner != null) drawText(g, CELL_LETTER, cellOwner.getPlayingLetter(), xpos, ypos);
+            }
+        }
+        if (!g.hitClip(0, height - MESSAGE_HEIGHT, width, MESSAGE_HEIGHT)) {
+            return;
+        }
+
+        // Draw the message near the bottom of the screen
+        drawText(g, messageKind(model), messageLetter(model), 7, height - 10);
+    }
+
+    // Java2D keeps its own cache of laid out glyphs, so drawString only needs the same string again
+    private void drawText(Graphics g, int kind, char letter, int x, int y) {
+        g.setColor(kind == LABEL ? Color.LIGHT_GRAY : Color.BLACK);
+        g.drawString(cachedText(kind, letter), x, y);
+    }
+
+    private String cachedText(int kind, char letter) {
+        if (letter >= CACHED_LETTERS) {
+            return text(kind, letter);
+        }
+        if (texts[kind] == null) {
+            texts[kind] = new String[CACHED_LETTERS];
+        }
+        String cached = texts[kind][letter];
+        if (cached == null) {
+            cached = text(kind, letter);
+            texts[kind][letter] = cached;
+        }
+        return cached;
+    }
+
+    // Left end of the baseline of a cell's letter
+    static int cellX(int colNumber, float horiSpacing) {
+        return (int) (((float) MARGIN) + 2 - (FONT_SIZE / 2) + (horiSpacing * (colNumber + 0.5f)));
+    }
+
+    static int cellY(int rowNumber, float vertSpacing) {
+        return (int) (((float) MARGIN) + (FONT_SIZE / 2) + (vertSpacing * (rowNumber + 0.5f)));
+    }
+
+    static int messageKind(OXOModel model) {
+        if (model.getWinner() != null) return WINNER_MESSAGE;
+        return model.isGameDrawn() ? DRAW_MESSAGE : TURN_MESSAGE;
+    }
+
+    // The letter the message is about, the winner's or else whose turn it is
+    static char messageLetter(OXOModel model) {
+        if (model.getWinner() != null) return model.getWinner().getPlayingLetter();
+        if (model.isGameDrawn()) return 0;
+        return model.getPlayerByNumber(model.getCurrentPlayerNumber()).getPlayingLetter();
+    }
+
+    static String text(int kind, char letter) {
+        return switch (kind) {
+            case TURN_MESSAGE -> "Player " + letter + "'s turn";
+            case WINNER_MESSAGE -> "Player " + letter + " is the winner !";
+            case DRAW_MESSAGE -> "Stalemate - game is a draw !";
+            default -> String.valueOf(letter);
+        };
+    }
+}
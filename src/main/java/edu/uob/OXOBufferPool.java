@@ -0,0 +1,34 @@
+package edu.uob;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+// Direct buffers of one size, handed out again once they are given back instead of being allocated for every
+// connection. Not thread safe, each OXOServer thread has a pool of its own
+final class OXOBufferPool {
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+
+    OXOBufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    // A cleared buffer, ready to be written into
+    ByteBuffer acquire() {
+        ByteBuffer buffer = free.pollFirst();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    // Buffers beyond maxPooled are left for the garbage collector
+    void release(ByteBuffer buffer) {
+        if (free.size() < maxPooled) {
+            free.addFirst(buffer.clear());
+        }
+    }
+
+    int getNumberPooled() {
+        return free.size();
+    }
+}
@@ -0,0 +1,33 @@
+package edu.uob;
+
+import java.util.List;
+
+// Backing storage for the cells of an OXOModel
+// The model owns everything else (players, winner, threshold ...), a store only knows who owns which cell
+interface OXOCellStore {
+
+    int getNumberOfRows();
+
+    int getNumberOfColumns();
+
+    OXOPlayer get(int rowNumber, int colNumber);
+
+    void set(int rowNumber, int colNumber, OXOPlayer player);
+
+    void addRow();
+
+    void addColumn();
+
+    void removeRow();
+
+    void removeColumn();
+
+    // Empty every cell but keep the current dimensions
+    void clear();
+
+    // Calls the visitor for every claimed cell, in no particular order
+    void forEachOccupied(OXOCellVisitor visitor);
+
+    // Independent store with the same cells, players is the list of the model the copy will belong to
+    OXOCellStore copy(List<OXOPlayer> players);
+}
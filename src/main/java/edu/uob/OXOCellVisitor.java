@@ -0,0 +1,6 @@
+package edu.uob;
+
+// Callback for walking over the claimed cells of a board
+interface OXOCellVisitor {
+    void visit(int rowNumber, int colNumber, OXOPlayer owner);
+}
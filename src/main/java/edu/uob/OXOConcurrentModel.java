@@ -0,0 +1,241 @@
+package edu.uob;
+
+import java.util.concurrent.locks.StampedLock;
+
+// OXOModel for one writer and any number of readers on other threads (spectators, the view)
+// Every change takes the write lock of a StampedLock and also updates a plain copy of the board and game state
+// The controller groups the changes of a whole move with beginChange/endChange, so a move is seen all at once or not at all
+// snapshot() copies that under an optimistic read and tries again if a write happened meanwhile, so readers never
+// lock anything and the writer never waits for them
+// The getters of OXOModel are only safe on the writing thread, other threads should use snapshot()
+// Boards are copied whole, so SPARSE storage isn't supported
+public class OXOConcurrentModel extends OXOModel {
+    private final StampedLock lock = new StampedLock();
+    // Thread holding the write lock and how many changes it is inside, only the outermost one takes and releases it
+    private volatile Thread writer;
+    private int writeDepth;
+    private long writeStamp;
+    private boolean boardReshaped;
+
+    // Published state, only written under the write lock
+    private int rows;
+    private int columns;
+    private int[] owners;
+    private int numberOfPlayers;
+    private int currentPlayerNumber;
+    private int winnerNumber;
+    private boolean gameDrawn;
+    private int winThreshold;
+    private long version;
+
+    public OXOConcurrentModel(int numberOfRows, int numberOfColumns, int winThresh) {
+        this(numberOfRows, numberOfColumns, winThresh, Storage.LIST);
+    }
+
+    public OXOConcurrentModel(int numberOfRows, int numberOfColumns, int winThresh, Storage storage) {
+        super(numberOfRows, numberOfColumns, winThresh, storage);
+        if (storage == Storage.SPARSE) {
+            throw new IllegalArgumentException("Sparse boards are too large to snapshot");
+        }
+        beginChange();
+        boardReshaped = true;
+        endChange();
+    }
+
+    public OXOModelSnapshot snapshot() {
+        return snapshot(new OXOModelSnapshot());
+    }
+
+    // Fills in the given snapshot, reusing its board array when the size hasn't changed
+    public OXOModelSnapshot snapshot(OXOModelSnapshot into) {
+        for (int attempt = 1; ; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                int[] board = owners;
+                if (into.owners.length != board.length) {
+                    into.owners = new int[board.length];
+                }
+                // Copying by the array's own length stays in bounds even if the sizes read are from different writes
+                System.arraycopy(board, 0, into.owners, 0, board.length);
+                into.rows = rows;
+                into.columns = columns;
+                into.numberOfPlayers = numberOfPlayers;
+                into.currentPlayerNumber = currentPlayerNumber;
+                into.winnerNumber = winnerNumber;
+                into.gameDrawn = gameDrawn;
+                into.winThreshold = winThreshold;
+                into.version = version;
+                if (lock.validate(stamp)) {
+                    return into;
+                }
+            }
+            if (attempt % 1000 == 0) Thread.yield();
+            else Thread.onSpinWait();
+        }
+    }
+
+    public void addPlayer(OXOPlayer player) {
+        beginChange();
+        try {
+            super.addPlayer(player);
+        } finally {
+            endChange();
+        }
+    }
+
+    public void setWinner(OXOPlayer player) {
+        beginChange();
+        try {
+            super.setWinner(player);
+        } finally {
+            endChange();
+        }
+    }
+
+    public void setCurrentPlayerNumber(int playerNumber) {
+        beginChange();
+        try {
+            super.setCurrentPlayerNumber(playerNumber);
+        } finally {
+            endChange();
+        }
+    }
+
+    public void setCellOwner(int rowNumber, int colNumber, OXOPlayer player) {
+        beginChange();
+        try {
+            super.setCellOwner(rowNumber, colNumber, player);
+            if (!boardReshaped) {
+                owners[rowNumber * columns + colNumber] = playerNumber(player);
+            }
+        } finally {
+            endChange();
+        }
+    }
+
+    public void setWinThreshold(int winThresh) {
+        beginChange();
+        try {
+            super.setWinThreshold(winThresh);
+        } finally {
+            endChange();
+        }
+    }
+
+    public void setGameDrawn() {
+        beginChange();
+        try {
+            super.setGameDrawn();
+        } finally {
+            endChange();
+        }
+    }
+
+    void clearGameDrawn() {
+        beginChange();
+        try {
+            super.clearGameDrawn();
+        } finally {
+            endChange();
+        }
+    }
+
+    public void addColumn() {
+        beginChange();
+        try {
+            super.addColumn();
+            boardReshaped = true;
+        } finally {
+            endChange();
+        }
+    }
+
+    public void addRow() {
+        beginChange();
+        try {
+            super.addRow();
+            boardReshaped = true;
+        } finally {
+            endChange();
+        }
+    }
+
+    public void removeColumn() {
+        beginChange();
+        try {
+            super.removeColumn();
+            boardReshaped = true;
+        } finally {
+            endChange();
+        }
+    }
+
+    public void removeRow() {
+        beginChange();
+        try {
+            super.removeRow();
+            boardReshaped = true;
+        } finally {
+            endChange();
+        }
+    }
+
+    public void reset() {
+        beginChange();
+        try {
+            super.reset();
+            boardReshaped = true;
+        } finally {
+            endChange();
+        }
+    }
+
+    void beginChange() {
+        if (writer == Thread.currentThread()) {
+            writeDepth++;
+            return;
+        }
+        long stamp = lock.writeLock();
+        writer = Thread.currentThread();
+        writeStamp = stamp;
+        writeDepth = 1;
+    }
+
+    void endChange() {
+        if (--writeDepth > 0) {
+            return;
+        }
+        publish();
+        writer = null;
+        lock.unlockWrite(writeStamp);
+    }
+
+    private void publish() {
+        if (boardReshaped) {
+            rows = getNumberOfRows();
+            columns = getNumberOfColumns();
+            if (owners == null || owners.length != rows * columns) {
+                owners = new int[rows * columns];
+            }
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < columns; col++) {
+                    owners[row * columns + col] = playerNumber(getCellOwner(row, col));
+                }
+            }
+            boardReshaped = false;
+        }
+        numberOfPlayers = getNumberOfPlayers();
+        currentPlayerNumber = getCurrentPlayerNumber();
+        winnerNumber = playerNumber(getWinner());
+        gameDrawn = isGameDrawn();
+        winThreshold = getWinThreshold();
+        version++;
+    }
+
+    private int playerNumber(OXOPlayer player) {
+        for (int p = 0; player != null && p < getNumberOfPlayers(); p++) {
+            if (getPlayerByNumber(p) == player) return p;
+        }
+        return -1;
+    }
+}
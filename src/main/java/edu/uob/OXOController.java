@@ -1,113 +1,404 @@
 package edu.uob;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
 public class OXOController {
+    // Kinds of history entry
+    private static final int MOVE = 0;
+    private static final int ADD_ROW = 1;
+    private static final int REMOVE_ROW = 2;
+    private static final int ADD_COLUMN = 3;
+    private static final int REMOVE_COLUMN = 4;
+    private static final int THRESHOLD = 5;
+    // Ints per history entry: kind, row and column (or the threshold before and after), the turn before and after,
+    // and the result before and after as (winner + 1) << 1 | drawn
+    private static final int HISTORY_STRIDE = 7;
+
     OXOModel gameModel;
+    // Reused so that reading a command out of a ByteBuffer doesn't allocate
+    private final ByteCommand byteCommand = new ByteCommand();
+    // What the last rejected move got wrong (length, character, position or row), only read to build its exception
+    private int rejectedValue;
+    private int rejectedColumn;
+    // Where the last valid identifier points, set by the parse methods
+    private int parsedRow;
+    private int parsedColumn;
+    // Players and turn while a batch of moves is applied
+    private OXOPlayer[] batchPlayers = new OXOPlayer[0];
+    private int batchPlayer;
+    private int batchMoves;
+    // Everything done through this controller since the last reset, entries before historyPosition can be undone and
+    // the ones from there to historySize redone. Doing anything new drops what could have been redone
+    private int[] history = new int[HISTORY_STRIDE * 64];
+    private int historyPosition;
+    private int historySize;
 
     public OXOController(OXOModel model) {
         gameModel = model;
     }
 
     public void handleIncomingCommand(String command) throws OXOMoveException {
+        handleIncomingCommand((CharSequence) command);
+    }
+
+    // The overloads below all run the same checks as handleIncomingCommand(String) and allocate nothing unless they throw
+    public void handleIncomingCommand(CharSequence command) throws OXOMoveException {
+        throwIfRejected(tryIncomingCommand(command));
+    }
+
+    // A two character identifier that has already been split, such as 'b' and '3'
+    public void handleIncomingCommand(char rowChar, char colChar) throws OXOMoveException {
+        throwIfRejected(tryIncomingCommand(rowChar, colChar));
+    }
+
+    // Zero based row and column, as they would be after parsing an identifier
+    public void handleIncomingCommand(int row, int col) throws OXOMoveException {
+        throwIfRejected(tryIncomingCommand(row, col));
+    }
+
+    // ASCII identifier between the buffer's position and limit, the buffer's position is left where it was
+    public void handleIncomingCommand(ByteBuffer command) throws OXOMoveException {
+        throwIfRejected(tryIncomingCommand(command));
+    }
+
+    // Non-throwing versions of handleIncomingCommand: the move is made only when the result is OK
+    public OXOMoveResult tryIncomingCommand(CharSequence command) {
         if (gameModel.getWinner() != null) {
-            return;
+            return OXOMoveResult.GAME_OVER;
+        }
+        OXOMoveResult result = parseCommand(command);
+        return result == OXOMoveResult.OK ? claimCell(parsedRow, parsedColumn) : result;
+    }
+
+    public OXOMoveResult tryIncomingCommand(char rowChar, char colChar) {
+        if (gameModel.getWinner() != null) {
+            return OXOMoveResult.GAME_OVER;
+        }
+        OXOMoveResult result = parseCharacters(rowChar, colChar);
+        return result == OXOMoveResult.OK ? claimCell(parsedRow, parsedColumn) : result;
+    }
+
+    public OXOMoveResult tryIncomingCommand(int row, int col) {
+        if (gameModel.getWinner() != null) {
+            return OXOMoveResult.GAME_OVER;
+        }
+        return claimCell(row, col);
+    }
+
+    public OXOMoveResult tryIncomingCommand(ByteBuffer command) {
+        byteCommand.wrap(command);
+        try {
+            return tryIncomingCommand(byteCommand);
+        } finally {
+            byteCommand.wrap(null);
+        }
+    }
+
+    // Moves made one after another, for replays and imports. Stops at the first move that is rejected or that comes
+    // after the game has been won, the result says how many moves were made and what stopped the rest
+    // The players are looked up once and the turn is only passed on in the model at the end
+    public BatchResult applyMoves(List<? extends CharSequence> moves) {
+        beginBatch();
+        try {
+            for (CharSequence move : moves) {
+                OXOMoveResult result = gameModel.getWinner() != null ? OXOMoveResult.GAME_OVER : parseCommand(move);
+                if (result == OXOMoveResult.OK) {
+                    result = applyBatchMove(parsedRow, parsedColumn);
+                }
+                if (result != OXOMoveResult.OK) {
+                    return new BatchResult(batchMoves, result);
+                }
+            }
+            return new BatchResult(batchMoves, OXOMoveResult.OK);
+        } finally {
+            endBatch();
+        }
+    }
+
+    // Moves packed with encodeMove, as they would be stored by a recorder
+    public BatchResult applyMoves(long[] moves) {
+        beginBatch();
+        try {
+            for (long move : moves) {
+                OXOMoveResult result = gameModel.getWinner() != null ? OXOMoveResult.GAME_OVER
+                    : applyBatchMove(encodedRow(move), encodedColumn(move));
+                if (result != OXOMoveResult.OK) {
+                    return new BatchResult(batchMoves, result);
+                }
+            }
+            return new BatchResult(batchMoves, OXOMoveResult.OK);
+        } finally {
+            endBatch();
+        }
+    }
+
+    public static long encodeMove(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    public static int encodedRow(long move) {
+        return (int) (move >> 32);
+    }
+
+    public static int encodedColumn(long move) {
+        return (int) move;
+    }
+
+    public static class BatchResult {
+        private final int movesApplied;
+        private final OXOMoveResult result;
+
+        BatchResult(int movesApplied, OXOMoveResult result) {
+            this.movesApplied = movesApplied;
+            this.result = result;
+        }
+
+        // How many moves from the start of the batch were made
+        public int getMovesApplied() {
+            return movesApplied;
+        }
+
+        // OK when every move was made, otherwise why the move at index getMovesApplied() wasn't
+        public OXOMoveResult getResult() {
+            return result;
+        }
+    }
+
+    private void beginBatch() {
+        int players = gameModel.getNumberOfPlayers();
+        if (batchPlayers.length != players) {
+            batchPlayers = new OXOPlayer[players];
+        }
+        for (int p = 0; p < players; p++) {
+            batchPlayers[p] = gameModel.getPlayerByNumber(p);
+        }
+        batchPlayer = gameModel.getCurrentPlayerNumber();
+        batchMoves = 0;
+        gameModel.beginChange();
+    }
+
+    private OXOMoveResult applyBatchMove(int row, int col) {
+        OXOMoveResult result = checkCell(row, col);
+        if (result == OXOMoveResult.OK) {
+            boolean drawnBefore = gameModel.isGameDrawn();
+            int mover = batchPlayer;
+            markCell(row, col, batchPlayers[mover]);
+            batchPlayer = (mover + 1) % batchPlayers.length;
+            recordMove(row, col, mover, batchPlayer, drawnBefore);
+            batchMoves++;
+        }
+        return result;
+    }
+
+    private void endBatch() {
+        try {
+            gameModel.setCurrentPlayerNumber(batchPlayer);
+        } finally {
+            gameModel.endChange();
+        }
+    }
+
+    // Fills in parsedRow and parsedColumn when the identifier is valid
+    private OXOMoveResult parseCommand(CharSequence command) {
+        if (gameModel.isUnbounded()) {
+            return parseExtendedCommand(command);
         }
 
         // Invalid Identifier Length
         if (command.length() != 2) {
-            throw new OXOMoveException.InvalidIdentifierLengthException(command.length());
+            rejectedValue = command.length();
+            return OXOMoveResult.INVALID_IDENTIFIER_LENGTH;
         }
 
+        return parseCharacters(command.charAt(0), command.charAt(1));
+    }
+
+    private OXOMoveResult parseCharacters(char rowChar, char colChar) {
         // Invalid Identifier Character
-        char rowChar = command.toUpperCase().charAt(0);
-        char colChar = command.charAt(1);
+        char upperRowChar = Character.toUpperCase(rowChar);
+        char lastRowChar = gameModel.isUnbounded() ? 'Z' : 'I';
+        if (upperRowChar < 'A' || upperRowChar > lastRowChar) {
+            rejectedValue = upperRowChar;
+            return OXOMoveResult.INVALID_ROW_CHARACTER;
+        }
+        if (colChar < '1' || colChar > '9') {
+            rejectedValue = colChar;
+            return OXOMoveResult.INVALID_COLUMN_CHARACTER;
+        }
 
-        // Check row identifier
-        if (rowChar < 'A' || rowChar > 'I') {
-            throw new OXOMoveException.InvalidIdentifierCharacterException(OXOMoveException.RowOrColumn.ROW, rowChar);
+        parsedRow = upperRowChar - 'A';
+        parsedColumn = colChar - '1';
+        return OXOMoveResult.OK;
+    }
+
+    // Unbounded boards name rows a..z, aa..zz, aaa... and columns 1, 2, ... 10, 11 ... so "ab12" is row 28, column 12
+    private OXOMoveResult parseExtendedCommand(CharSequence command) {
+        int length = command.length();
+        if (length < 2) {
+            rejectedValue = length;
+            return OXOMoveResult.INVALID_IDENTIFIER_LENGTH;
         }
+        int index = 0;
+        long row = 0;
+        while (index < length && Character.isLetter(command.charAt(index))) {
+            char rowChar = Character.toUpperCase(command.charAt(index));
+            if (rowChar < 'A' || rowChar > 'Z') {
+                rejectedValue = rowChar;
+                return OXOMoveResult.INVALID_ROW_CHARACTER;
+            }
+            row = Math.min(row * 26 + (rowChar - 'A' + 1), Integer.MAX_VALUE);
+            index++;
+        }
+        if (index == 0) {
+            rejectedValue = command.charAt(0);
+            return OXOMoveResult.INVALID_ROW_CHARACTER;
+        }
+        if (index == length) {
+            rejectedValue = length;
+            return OXOMoveResult.INVALID_IDENTIFIER_LENGTH;
+        }
+        long col = 0;
+        for (; index < length; index++) {
+            char colChar = command.charAt(index);
+            if (colChar < '0' || colChar > '9' || (col == 0 && colChar == '0')) {
+                rejectedValue = colChar;
+                return OXOMoveResult.INVALID_COLUMN_CHARACTER;
+            }
+            col = Math.min(col * 10 + (colChar - '0'), Integer.MAX_VALUE);
+        }
+        parsedRow = (int) row - 1;
+        parsedColumn = (int) col - 1;
+        return OXOMoveResult.OK;
+    }
 
-        // Check column identifier
+    // Builds the exception for a rejected move from what the check that rejected it noted down
+    private void throwIfRejected(OXOMoveResult result) throws OXOMoveException {
+        OXOMoveException exception = rejection(result);
+        if (exception != null) {
+            throw exception;
+        }
+    }
 
-        if (colChar < '1' || colChar > '9') {
-            throw new OXOMoveException.InvalidIdentifierCharacterException(OXOMoveException.RowOrColumn.COLUMN, colChar);
+    // The exception handleIncomingCommand would have thrown for the last move tried, null if it wouldn't have thrown
+    OXOMoveException rejection(OXOMoveResult result) {
+        return switch (result) {
+            case OK, GAME_OVER -> null;
+            case INVALID_IDENTIFIER_LENGTH -> new OXOMoveException.InvalidIdentifierLengthException(rejectedValue);
+            case INVALID_ROW_CHARACTER ->
+                new OXOMoveException.InvalidIdentifierCharacterException(OXOMoveException.RowOrColumn.ROW, (char) rejectedValue);
+            case INVALID_COLUMN_CHARACTER ->
+                new OXOMoveException.InvalidIdentifierCharacterException(OXOMoveException.RowOrColumn.COLUMN, (char) rejectedValue);
+            case ROW_OUTSIDE_RANGE -> new OXOMoveException.OutsideCellRangeException(OXOMoveException.RowOrColumn.ROW, rejectedValue);
+            case COLUMN_OUTSIDE_RANGE -> new OXOMoveException.OutsideCellRangeException(OXOMoveException.RowOrColumn.COLUMN, rejectedValue);
+            case CELL_ALREADY_TAKEN -> new OXOMoveException.CellAlreadyTakenException(rejectedValue, rejectedColumn);
+        };
+    }
+
+    // The identifier a player types to claim the cell, e.g. "a1" or "ab12" on an unbounded board
+    public static String cellIdentifier(int row, int col) {
+        StringBuilder rowLabel = new StringBuilder();
+        for (int r = row + 1; r > 0; r = (r - 1) / 26) {
+            rowLabel.append((char) ('a' + (r - 1) % 26));
+        }
+        return rowLabel.reverse().toString() + (col + 1);
+    }
+
+    private OXOMoveResult claimCell(int row, int col) {
+        OXOMoveResult result = checkCell(row, col);
+        if (result != OXOMoveResult.OK) {
+            return result;
         }
 
+        gameModel.beginChange();
+        try {
+            // Set cell owner to current player
+            // Get current player number
+            int currentPlayerNumber = gameModel.getCurrentPlayerNumber();
+            // Get current player OXOPlayer object
+            OXOPlayer currentPlayer = gameModel.getPlayerByNumber(currentPlayerNumber);
+            boolean drawnBefore = gameModel.isGameDrawn();
+            markCell(row, col, currentPlayer);
 
-        // Convert the identifiers to integers
-        int row = rowChar - 'A';
-        int col = colChar - '1';
+            // Set current player to next player
+            // Calculate the next player number
+            int nextPlayerNumber = (currentPlayerNumber + 1) % gameModel.getNumberOfPlayers();
+            gameModel.setCurrentPlayerNumber(nextPlayerNumber);
+            recordMove(row, col, currentPlayerNumber, nextPlayerNumber, drawnBefore);
+        } finally {
+            gameModel.endChange();
+        }
+        return OXOMoveResult.OK;
+    }
 
+    private OXOMoveResult checkCell(int row, int col) {
         // Outside Range
-        if (row >= gameModel.getNumberOfRows()) {
-            throw new OXOMoveException.OutsideCellRangeException(OXOMoveException.RowOrColumn.ROW, row);
+        if (row < 0 || row >= gameModel.getNumberOfRows()) {
+            rejectedValue = row;
+            return OXOMoveResult.ROW_OUTSIDE_RANGE;
         }
-        if (col >= gameModel.getNumberOfColumns()) {
-            throw new OXOMoveException.OutsideCellRangeException(OXOMoveException.RowOrColumn.COLUMN, col);
+        if (col < 0 || col >= gameModel.getNumberOfColumns()) {
+            rejectedValue = col;
+            return OXOMoveResult.COLUMN_OUTSIDE_RANGE;
         }
 
         // Already Taken
         if (gameModel.getCellOwner(row, col) != null) {
-            throw new OXOMoveException.CellAlreadyTakenException(row + 1, col + 1);
+            rejectedValue = row + 1;
+            rejectedColumn = col + 1;
+            return OXOMoveResult.CELL_ALREADY_TAKEN;
         }
+        return OXOMoveResult.OK;
+    }
 
-
-        // Set cell owner to current player
-        // Get current player number
-        int currentPlayerNumber = gameModel.getCurrentPlayerNumber();
-        // Get current player OXOPlayer object
-        OXOPlayer currentPlayer = gameModel.getPlayerByNumber(currentPlayerNumber);
-        gameModel.setCellOwner(row, col, currentPlayer);
+    // Claims the cell for the player and records a win or a draw
+    private void markCell(int row, int col, OXOPlayer player) {
+        gameModel.setCellOwner(row, col, player);
 
         // Check for win
         if (checkWin(row, col)) {
-            gameModel.setWinner(currentPlayer);
+            gameModel.setWinner(player);
         } else if (checkDraw()) {
             gameModel.setGameDrawn();
         }
-
-        // Set current player to next player
-        // Calculate the next player number
-        int nextPlayerNumber = (currentPlayerNumber + 1) % gameModel.getNumberOfPlayers();
-        gameModel.setCurrentPlayerNumber(nextPlayerNumber);
     }
 
     public void addRow() {
+        int rows = gameModel.getNumberOfRows();
         gameModel.addRow();
+        if (gameModel.getNumberOfRows() != rows) {
+            record(ADD_ROW, 0, 0);
+        }
     }
 
     public void removeRow() {
         int last = gameModel.getNumberOfRows() - 1;
-        boolean removable = true;
-        for (int i = 0; i < gameModel.getNumberOfColumns(); i++) {
-            OXOPlayer cellOwner = gameModel.getCellOwner(last, i);
-            if (cellOwner != null) {
-                removable = false;
-                break;
-            }
-        }
-        if (removable) {
+        if (!gameModel.isRowOccupied(last)) {
             gameModel.removeRow();
+            if (gameModel.getNumberOfRows() == last) {
+                record(REMOVE_ROW, 0, 0);
+            }
         }else{
             System.out.println("Operation not allowed: There are some cells been occupied, can not remove row");
         }
     }
 
     public void addColumn() {
+        int columns = gameModel.getNumberOfColumns();
         gameModel.addColumn();
+        if (gameModel.getNumberOfColumns() != columns) {
+            record(ADD_COLUMN, 0, 0);
+        }
     }
 
     public void removeColumn() {
         int last = gameModel.getNumberOfColumns() - 1;
-        boolean removable = true;
-        for (int i = 0; i < gameModel.getNumberOfRows(); i++) {
-            OXOPlayer cellOwner = gameModel.getCellOwner(i, last);
-            if (cellOwner != null) {
-                removable = false;
-                break;
-            }
-        }
-        if (removable) {
+        if (!gameModel.isColumnOccupied(last)) {
             gameModel.removeColumn();
+            if (gameModel.getNumberOfColumns() == last) {
+                record(REMOVE_COLUMN, 0, 0);
+            }
         }else{
             System.out.println("Operation not allowed: There are some cells been occupied, can not remove cloumn");
         }
@@ -116,6 +407,7 @@ public class OXOController {
     public void increaseWinThreshold() {
         int threshold = gameModel.getWinThreshold();
         gameModel.setWinThreshold(threshold + 1);
+        record(THRESHOLD, threshold, threshold + 1);
     }
 
     public void decreaseWinThreshold() {
@@ -124,6 +416,7 @@ public class OXOController {
         if (threshold > thresholdMin) {
             if (!gameModel.isGameInProcess() || gameModel.getWinner() != null) {
                 gameModel.setWinThreshold(threshold - 1);
+                record(THRESHOLD, threshold, threshold - 1);
             }else{
                 System.out.println("Operation not allowed: Game is in progress, and the threshold cannot be reduced");
             }
@@ -132,11 +425,135 @@ public class OXOController {
         }
     }
 
+    // Moves the threshold as far towards the target as increaseWinThreshold and decreaseWinThreshold would, but as one
+    // change with one history entry however far it goes
+    public void changeWinThreshold(int target) {
+        int threshold = gameModel.getWinThreshold();
+        int changed = target;
+        if (target < threshold) {
+            boolean decreasable = !gameModel.isGameInProcess() || gameModel.getWinner() != null;
+            changed = decreasable ? Math.min(threshold, Math.max(target, 3)) : threshold;
+        }
+        if (changed != threshold) {
+            gameModel.setWinThreshold(changed);
+            record(THRESHOLD, threshold, changed);
+        }
+    }
+
     public void reset() {
         gameModel.reset();
+        historyPosition = 0;
+        historySize = 0;
+    }
+
+    public boolean canUndo() {
+        return historyPosition > 0;
+    }
+
+    public boolean canRedo() {
+        return historyPosition < historySize;
+    }
+
+    // Takes back the last move, resize or threshold change made through this controller, false if there is none
+    // Each step puts back exactly what the entry recorded, so it takes constant time and allocates nothing
+    // Changes made to the model directly, rather than through the controller, aren't in the history
+    public boolean undo() {
+        if (historyPosition == 0) {
+            return false;
+        }
+        int entry = --historyPosition * HISTORY_STRIDE;
+        gameModel.beginChange();
+        try {
+            switch (history[entry]) {
+                case MOVE -> {
+                    gameModel.setCellOwner(history[entry + 1], history[entry + 2], null);
+                    restoreTurn(history[entry + 3], history[entry + 5]);
+                }
+                case ADD_ROW -> gameModel.removeRow();
+                case REMOVE_ROW -> gameModel.addRow();
+                case ADD_COLUMN -> gameModel.removeColumn();
+                case REMOVE_COLUMN -> gameModel.addColumn();
+                default -> gameModel.setWinThreshold(history[entry + 1]);
+            }
+        } finally {
+            gameModel.endChange();
+        }
+        return true;
+    }
+
+    // Makes the last undone change again, false if there is nothing to redo
+    public boolean redo() {
+        if (historyPosition == historySize) {
+            return false;
+        }
+        int entry = historyPosition++ * HISTORY_STRIDE;
+        gameModel.beginChange();
+        try {
+            switch (history[entry]) {
+                case MOVE -> {
+                    gameModel.setCellOwner(history[entry + 1], history[entry + 2], gameModel.getPlayerByNumber(history[entry + 3]));
+                    restoreTurn(history[entry + 4], history[entry + 6]);
+                }
+                case ADD_ROW -> gameModel.addRow();
+                case REMOVE_ROW -> gameModel.removeRow();
+                case ADD_COLUMN -> gameModel.addColumn();
+                case REMOVE_COLUMN -> gameModel.removeColumn();
+                default -> gameModel.setWinThreshold(history[entry + 2]);
+            }
+        } finally {
+            gameModel.endChange();
+        }
+        return true;
+    }
+
+    private void restoreTurn(int playerNumber, int result) {
+        int winner = (result >>> 1) - 1;
+        if (winner < 0) {
+            if (gameModel.getWinner() != null) gameModel.setWinner(null);
+        } else {
+            gameModel.setWinner(gameModel.getPlayerByNumber(winner));
+        }
+        boolean drawn = (result & 1) != 0;
+        if (drawn && !gameModel.isGameDrawn()) {
+            gameModel.setGameDrawn();
+        } else if (!drawn && gameModel.isGameDrawn()) {
+            gameModel.clearGameDrawn();
+        }
+        gameModel.setCurrentPlayerNumber(playerNumber);
+    }
+
+    // Moves can't be made once the game is won, so the only winner there can be afterwards is the mover
+    private void recordMove(int row, int col, int mover, int nextPlayer, boolean drawnBefore) {
+        int resultAfter = (gameModel.getWinner() != null ? mover + 1 : 0) << 1 | (gameModel.isGameDrawn() ? 1 : 0);
+        record(MOVE, row, col);
+        int entry = (historyPosition - 1) * HISTORY_STRIDE;
+        history[entry + 3] = mover;
+        history[entry + 4] = nextPlayer;
+        history[entry + 5] = drawnBefore ? 1 : 0;
+        history[entry + 6] = resultAfter;
+    }
+
+    // Adds an entry at historyPosition, dropping anything that was waiting to be redone
+    // The array only grows, by doubling, so once it is big enough recording allocates nothing
+    private void record(int kind, int a, int b) {
+        int entry = historyPosition * HISTORY_STRIDE;
+        if (entry == history.length) {
+            history = Arrays.copyOf(history, history.length * 2);
+        }
+        history[entry] = kind;
+        history[entry + 1] = a;
+        history[entry + 2] = b;
+        historyPosition++;
+        historySize = historyPosition;
     }
 
     public boolean checkWin(int row, int col) {
+        // The model already knows how long the lines through the cell it has just claimed are
+        int longestRun = gameModel.getLastClaimRunLength(row, col);
+        if (longestRun >= 0) {
+            return longestRun >= gameModel.getWinThreshold();
+        }
+
         OXOPlayer currentPlayer = gameModel.getCellOwner(row, col);
         int numRows = gameModel.getNumberOfRows();
         int numColumns = gameModel.getNumberOfColumns();
@@ -221,13 +638,33 @@ public class OXOController {
     }
 
     public boolean checkDraw() {
-        for (int row = 0; row < gameModel.getNumberOfRows(); row++) {
-            for (int col = 0; col < gameModel.getNumberOfColumns(); col++) {
-                if (gameModel.getCellOwner(row, col) == null) {
-                    return false;
-                }
-            }
+        return gameModel.isBoardFull();
+    }
+
+    // The bytes of a ByteBuffer read as ASCII characters, without copying them
+    private static class ByteCommand implements CharSequence {
+        private ByteBuffer buffer;
+
+        void wrap(ByteBuffer command) {
+            buffer = command;
+        }
+
+        public int length() {
+            return buffer.remaining();
+        }
+
+        public char charAt(int index) {
+            return (char) (buffer.get(buffer.position() + index) & 0xFF);
+        }
+
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        public String toString() {
+            StringBuilder builder = new StringBuilder(length());
+            for (int i = 0; i < length(); i++) builder.append(charAt(i));
+            return builder.toString();
         }
-        return true;
     }
 }
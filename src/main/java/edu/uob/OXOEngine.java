@@ -0,0 +1,97 @@
+package edu.uob;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
+
+// Runs a game's commands on a thread of its own, so a slow move or an engine thinking never holds up the event
+// dispatch thread. That thread is the only one that changes the model, through the controller handed to each action
+// The GUI reads its own copy of the model, the shown model, which is only touched on the event dispatch thread. After
+// changes the engine asks for the copy to be brought up to date from a snapshot of the model, once however many changes
+// are made before the event dispatch thread gets to it, and then tells the GUI it has been
+public class OXOEngine implements AutoCloseable {
+    private final OXOConcurrentModel model;
+    private final OXOController controller;
+    private final ExecutorService writer;
+    private final Runnable published;
+    // Event dispatch thread only
+    private final OXOModel shown;
+    private final OXOModelSnapshot snapshot = new OXOModelSnapshot();
+    private long shownVersion = -1;
+    // Set while a publish is queued on the event dispatch thread and still to take its snapshot
+    private final AtomicBoolean publishQueued = new AtomicBoolean();
+
+    // A change to make through the controller, on the engine's thread
+    public interface Action {
+        void run(OXOController controller) throws OXOMoveException;
+    }
+
+    // The model's players have to be added before the engine is made. published is run on the event dispatch thread
+    // each time the shown model has caught up, e.g. to refresh the view
+    public OXOEngine(OXOConcurrentModel model, Runnable published) {
+        this.model = model;
+        this.published = published;
+        controller = new OXOController(model);
+        shown = model.copy();
+        writer = Executors.newSingleThreadExecutor(action -> {
+            Thread thread = new Thread(action, "oxo-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Only to be read on the event dispatch thread
+    public OXOModel getShownModel() {
+        return shown;
+    }
+
+    // Completes once the action has run, exceptionally with whatever it threw, and by then the shown model's catch up is
+    // already queued on the event dispatch thread. It is queued even for actions that fail, as they may have changed
+    // something first
+    public CompletableFuture<Void> submit(Action action) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        writer.execute(() -> {
+            Exception failure = null;
+            try {
+                action.run(controller);
+            } catch (OXOMoveException | RuntimeException exception) {
+                failure = exception;
+            }
+            publish();
+            if (failure == null) done.complete(null);
+            else done.completeExceptionally(failure);
+        });
+        return done;
+    }
+
+    private void publish() {
+        if (!publishQueued.getAndSet(true)) {
+            SwingUtilities.invokeLater(this::catchUp);
+        }
+    }
+
+    // Clearing the flag before the snapshot is taken means a change made after it always queues another catch up
+    // Actions that changed nothing, such as rejected moves, leave the version alone and cost no repaint
+    private void catchUp() {
+        publishQueued.set(false);
+        model.snapshot(snapshot);
+        if (snapshot.getVersion() != shownVersion) {
+            shownVersion = snapshot.getVersion();
+            shown.copyFrom(snapshot);
+            published.run();
+        }
+    }
+
+    // Actions already submitted still run
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
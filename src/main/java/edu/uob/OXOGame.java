@@ -21,9 +21,10 @@ public class OXOGame extends Frame implements WindowListener, ActionListener, Mo
     @Serial private static final long serialVersionUID = 4493180057657097249L;
     private static Font FONT = new Font("SansSerif", Font.PLAIN, 14);
 
-    OXOController controller;
+    OXOEngine engine;
     TextField inputBox;
     OXOView view;
+    OXOKeyInput keys;
 
     public static void main(String[] args) {
         System.setProperty("awt.useSystemAAFontSettings", "on");
@@ -33,15 +34,18 @@ public class OXOGame extends Frame implements WindowListener, ActionListener, Mo
 
     public OXOGame(int width, int height) {
         super("OXO Board");
-        OXOModel model = new OXOModel(3, 3, 3);
+        OXOConcurrentModel model = new OXOConcurrentModel(3, 3, 3);
         model.addPlayer(new OXOPlayer('X'));
         model.addPlayer(new OXOPlayer('O'));
-        controller = new OXOController(model);
+        // Commands run on the engine's thread, the view shows the engine's copy of the model and is refreshed when
+        // that catches up
+        engine = new OXOEngine(model, () -> view.refresh());
         inputBox = new TextField("");
         inputBox.addActionListener(this);
         inputBox.setFont(FONT);
+        keys = new OXOKeyInput(model, engine, this::clearThresholdKeys);
         inputBox.addKeyListener(this);
-        view = new OXOView(model);
+        view = new OXOView(engine.getShownModel());
         view.addMouseListener(this);
         view.addKeyListener(this);
         Panel contentPane = new Panel();
@@ -60,47 +64,42 @@ public class OXOGame extends Frame implements WindowListener, ActionListener, Mo
     }
 
     public void actionPerformed(ActionEvent event) {
-        try {
-            String command = inputBox.getText();
-            inputBox.setText("");
-            controller.handleIncomingCommand(command);
-            view.repaint();
-        } catch (OXOMoveException exception) {
+        String command = inputBox.getText();
+        inputBox.setText("");
+        engine.submit(controller -> controller.handleIncomingCommand(command)).exceptionally(exception -> {
             System.out.println("Game move exception: " + exception);
-        }
+            return null;
+        });
     }
 
     public void mousePressed(MouseEvent event) {
+        boolean remove = event.isPopupTrigger() || event.getModifiersEx() == MouseEvent.BUTTON3_DOWN_MASK;
         if (event.getX() < 35) {
-            if (event.isPopupTrigger()) controller.removeRow();
-            else if (event.getModifiersEx() == MouseEvent.BUTTON3_DOWN_MASK) controller.removeRow();
-            else controller.addRow();
+            if (remove) engine.submit(OXOController::removeRow);
+            else engine.submit(OXOController::addRow);
         }
         if (event.getY() < 35) {
-            if (event.isPopupTrigger()) controller.removeColumn();
-            else if (event.getModifiersEx() == MouseEvent.BUTTON3_DOWN_MASK) controller.removeColumn();
-            else controller.addColumn();
+            if (remove) engine.submit(OXOController::removeColumn);
+            else engine.submit(OXOController::addColumn);
         }
-        view.repaint();
     }
 
-    public void keyPressed(KeyEvent event) {
-        inputBox.setText(inputBox.getText().replace("=",""));
-        inputBox.setText(inputBox.getText().replace("-",""));
-        view.repaint();
-    }
+    public void keyPressed(KeyEvent event) {}
 
     public void keyReleased(KeyEvent event) {
-        inputBox.setText(inputBox.getText().replace("=",""));
-        inputBox.setText(inputBox.getText().replace("-",""));
-        if (event.getKeyCode() == KeyEvent.VK_ESCAPE) controller.reset();
-        view.repaint();
+        keys.keyReleased(event);
     }
 
     public void keyTyped(KeyEvent event) {
-        if (event.getKeyChar() == '=') controller.increaseWinThreshold();
-        if (event.getKeyChar() == '-') controller.decreaseWinThreshold();
-        view.repaint();
+        keys.keyTyped(event);
+    }
+
+    // Only needed where the platform puts a consumed key into the box anyway
+    private void clearThresholdKeys() {
+        String text = inputBox.getText();
+        if (text.indexOf('=') >= 0 || text.indexOf('-') >= 0) {
+            inputBox.setText(text.replace("=", "").replace("-", ""));
+        }
     }
 
     public void mouseClicked(MouseEvent event) {}
@@ -115,6 +114,8 @@ public class OXOGame extends Frame implements WindowListener, ActionListener, Mo
     public void windowOpened(WindowEvent event) {}
 
     public void windowClosing(WindowEvent e) {
+        keys.stop();
+        engine.close();
         this.dispose();
         System.exit(0);
     }
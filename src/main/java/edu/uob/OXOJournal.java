@@ -0,0 +1,305 @@
+package edu.uob;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Append-only history of the models it is attached to, written as 16 byte records into memory-mapped segment files
+// (journal-000000.seg, journal-000001.seg, ...) in one directory. An append is four stores into the mapping, the
+// operating system writes the pages out in its own time and flush() forces them to disk when that matters
+// Each record is a type and up to three ints. The type is written last, with a release store so it can't land before
+// the ints, and files start zero-filled, so a record that was cut short by a crash reads as the end of the journal
+// Records are 16 byte aligned and so never straddle a page that the operating system writes out on its own
+// replay() rebuilds the model as it was after any number of records
+public class OXOJournal implements OXOModelListener, AutoCloseable {
+    public static final int RECORD_BYTES = 16;
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 16;
+
+    // Record types, 0 is never written and marks the end of the journal
+    static final int INIT = 1;
+    static final int ADD_PLAYER = 2;
+    static final int CELL = 3;
+    static final int CURRENT_PLAYER = 4;
+    static final int WINNER = 5;
+    static final int DRAWN = 6;
+    static final int THRESHOLD = 7;
+    static final int ADD_ROW = 8;
+    static final int REMOVE_ROW = 9;
+    static final int ADD_COLUMN = 10;
+    static final int REMOVE_COLUMN = 11;
+    static final int RESET = 12;
+    static final int DRAWN_CLEARED = 13;
+
+    // Ints in a segment, for the record type's release store
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Path directory;
+    private final int segmentBytes;
+    private int segmentNumber;
+    private MappedByteBuffer segment;
+    private int position;
+    private long records;
+    private OXOModel model;
+
+    // An existing journal in the directory is carried on with the segment size it was written with, a new one gets
+    // the default
+    public OXOJournal(Path directory) throws IOException {
+        this(directory, existingRecordsPerSegment(directory));
+    }
+
+    // An existing journal in the directory is carried on from its last complete record. It must have been written
+    // with the same number of records per segment, as the records in its full segments are counted from that
+    public OXOJournal(Path directory, int recordsPerSegment) throws IOException {
+        if (recordsPerSegment < 1) {
+            throw new IllegalArgumentException("Segments need room for at least one record");
+        }
+        this.directory = directory;
+        segmentBytes = recordsPerSegment * RECORD_BYTES;
+        Files.createDirectories(directory);
+        List<Path> segments = segmentFiles(directory);
+        if (segments.isEmpty()) {
+            openSegment(0);
+            return;
+        }
+        // Only the last segment may be shorter, if it was cut short, and mapping it grows it back
+        for (int i = 0; i < segments.size(); i++) {
+            long size = Files.size(segments.get(i));
+            if (size > segmentBytes || (size < segmentBytes && i < segments.size() - 1)) {
+                throw new IllegalArgumentException("The journal in " + directory + " was written with "
+                    + existingRecordsPerSegment(directory) + " records per segment, not " + recordsPerSegment);
+            }
+        }
+        segmentNumber = segments.size() - 1;
+        long lastSize = Files.size(segments.get(segmentNumber));
+        records = (long) segmentNumber * recordsPerSegment;
+        openSegment(segmentNumber);
+        while (position + RECORD_BYTES <= lastSize && segment.getInt(position) != 0) {
+            position += RECORD_BYTES;
+            records++;
+        }
+        // A record the end of the file cut in half is dropped. Its type is cleared, as rewriting the slot only stores
+        // the type after the ints
+        if (position < segmentBytes) {
+            segment.putInt(position, 0);
+        }
+    }
+
+    // Records per segment of the journal in the directory, going by its first segment, or the default if it has none
+    private static int existingRecordsPerSegment(Path directory) throws IOException {
+        List<Path> segments = segmentFiles(directory);
+        if (segments.isEmpty()) {
+            return DEFAULT_RECORDS_PER_SEGMENT;
+        }
+        long size = Files.size(segments.get(0));
+        return (int) Math.max(1, (size + RECORD_BYTES - 1) / RECORD_BYTES);
+    }
+
+    // Starts recording the model: its current state is written first, then every change made to it
+    // A journal records one model at a time, attaching another one starts a new game in the journal
+    public void attach(OXOModel newModel) {
+        detach();
+        model = newModel;
+        append(INIT, newModel.getNumberOfRows(), newModel.getNumberOfColumns(), newModel.getWinThreshold(),
+            newModel.getStorage().ordinal());
+        for (int p = 0; p < newModel.getNumberOfPlayers(); p++) {
+            playerAdded(newModel.getPlayerByNumber(p));
+        }
+        newModel.forEachOccupiedCell((row, col, owner) -> cellChanged(row, col, playerNumber(newModel, owner)));
+        currentPlayerChanged(newModel.getCurrentPlayerNumber());
+        if (newModel.getWinner() != null) {
+            winnerChanged(playerNumber(newModel, newModel.getWinner()));
+        }
+        if (newModel.isGameDrawn()) {
+            gameDrawn();
+        }
+        newModel.setListener(this);
+    }
+
+    public void detach() {
+        if (model != null) {
+            model.setListener(null);
+            model = null;
+        }
+    }
+
+    // Records written so far, over all segments
+    public long getNumberOfRecords() {
+        return records;
+    }
+
+    // Forces the current segment's changes out to the disk
+    public void flush() {
+        segment.force();
+    }
+
+    public void close() {
+        detach();
+        flush();
+    }
+
+    public void playerAdded(OXOPlayer player) {
+        append(ADD_PLAYER, player.getPlayingLetter(), 0, 0, 0);
+    }
+
+    public void cellChanged(int rowNumber, int colNumber, int playerNumber) {
+        append(CELL, rowNumber, colNumber, playerNumber, 0);
+    }
+
+    public void currentPlayerChanged(int playerNumber) {
+        append(CURRENT_PLAYER, playerNumber, 0, 0, 0);
+    }
+
+    public void winnerChanged(int playerNumber) {
+        append(WINNER, playerNumber, 0, 0, 0);
+    }
+
+    public void gameDrawn() {
+        append(DRAWN, 0, 0, 0, 0);
+    }
+
+    public void gameDrawnCleared() {
+        append(DRAWN_CLEARED, 0, 0, 0, 0);
+    }
+
+    public void winThresholdChanged(int winThreshold) {
+        append(THRESHOLD, winThreshold, 0, 0, 0);
+    }
+
+    public void rowAdded() {
+        append(ADD_ROW, 0, 0, 0, 0);
+    }
+
+    public void rowRemoved() {
+        append(REMOVE_ROW, 0, 0, 0, 0);
+    }
+
+    public void columnAdded() {
+        append(ADD_COLUMN, 0, 0, 0, 0);
+    }
+
+    public void columnRemoved() {
+        append(REMOVE_COLUMN, 0, 0, 0, 0);
+    }
+
+    public void reset() {
+        append(RESET, 0, 0, 0, 0);
+    }
+
+    // The type's top 24 bits are free, INIT keeps the storage there
+    private void append(int type, int a, int b, int c, int extra) {
+        if (position == segmentBytes) {
+            segment.force();
+            try {
+                openSegment(segmentNumber + 1);
+            } catch (IOException exception) {
+                throw new UncheckedIOException("Could not start journal segment " + (segmentNumber + 1), exception);
+            }
+        }
+        segment.putInt(position + 4, a);
+        segment.putInt(position + 8, b);
+        segment.putInt(position + 12, c);
+        INTS.setRelease(segment, position, type | extra << 8);
+        position += RECORD_BYTES;
+        records++;
+    }
+
+    private void openSegment(int number) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(directory, number),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        segmentNumber = number;
+        position = 0;
+    }
+
+    // The model as it was after the first numberOfRecords records, or null if they don't include an INIT
+    public static OXOModel replay(Path directory, long numberOfRecords) throws IOException {
+        Replay replay = new Replay();
+        long remaining = numberOfRecords;
+        for (Path file : segmentFiles(directory)) {
+            MappedByteBuffer records;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                records = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            records.order(ByteOrder.LITTLE_ENDIAN);
+            for (int at = 0; at + RECORD_BYTES <= records.limit() && remaining > 0; at += RECORD_BYTES, remaining--) {
+                int header = records.getInt(at);
+                if (header == 0) {
+                    return replay.model;
+                }
+                replay.apply(header & 0xFF, header >>> 8, records.getInt(at + 4), records.getInt(at + 8), records.getInt(at + 12));
+            }
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return replay.model;
+    }
+
+    // The model as it was at the end of the journal
+    public static OXOModel replay(Path directory) throws IOException {
+        return replay(directory, Long.MAX_VALUE);
+    }
+
+    private static class Replay {
+        OXOModel model;
+
+        void apply(int type, int extra, int a, int b, int c) {
+            if (type == INIT) {
+                model = new OXOModel(a, b, c, OXOModel.Storage.values()[extra]);
+                return;
+            }
+            if (model == null) {
+                throw new IllegalStateException("Journal record of type " + type + " before any INIT record");
+            }
+            switch (type) {
+                case ADD_PLAYER -> model.addPlayer(new OXOPlayer((char) a));
+                case CELL -> model.setCellOwner(a, b, c < 0 ? null : model.getPlayerByNumber(c));
+                case CURRENT_PLAYER -> model.setCurrentPlayerNumber(a);
+                case WINNER -> model.setWinner(a < 0 ? null : model.getPlayerByNumber(a));
+                case DRAWN -> model.setGameDrawn();
+                case DRAWN_CLEARED -> model.clearGameDrawn();
+                case THRESHOLD -> model.setWinThreshold(a);
+                case ADD_ROW -> model.addRow();
+                case REMOVE_ROW -> model.removeRow();
+                case ADD_COLUMN -> model.addColumn();
+                case REMOVE_COLUMN -> model.removeColumn();
+                case RESET -> model.reset();
+                default -> throw new IllegalStateException("Unknown journal record type " + type);
+            }
+        }
+    }
+
+    private static int playerNumber(OXOModel model, OXOPlayer player) {
+        for (int p = 0; p < model.getNumberOfPlayers(); p++) {
+            if (model.getPlayerByNumber(p) == player) return p;
+        }
+        return -1;
+    }
+
+    private static Path segmentPath(Path directory, int number) {
+        return directory.resolve(String.format("journal-%06d.seg", number));
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(path -> path.getFileName().toString().matches("journal-\\d{6}\\.seg")).sorted().forEach(files::add);
+        }
+        return files;
+    }
+}
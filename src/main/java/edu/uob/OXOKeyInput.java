@@ -0,0 +1,55 @@
+package edu.uob;
+
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import javax.swing.Timer;
+
+// The game window's keys: = and - change the winning threshold, escape resets the game
+// Threshold keys are only noted as they come and acted on together at the end of the frame they came in, so a burst of
+// them makes one recorded change to the game and one repaint. Event dispatch thread only, like the rest of the GUI
+final class OXOKeyInput implements KeyListener {
+    static final int FRAME_MILLIS = 16;
+
+    private final OXOConcurrentModel model;
+    private final OXOEngine engine;
+    // Run at the end of each frame with keys in it, before the keys are acted on
+    private final Runnable frameEnded;
+    private final Timer inputFrame = new Timer(FRAME_MILLIS, event -> applyInput());
+    // Net change to the winning threshold from the keys typed this frame
+    private int thresholdChange;
+
+    OXOKeyInput(OXOConcurrentModel model, OXOEngine engine, Runnable frameEnded) {
+        this.model = model;
+        this.engine = engine;
+        this.frameEnded = frameEnded;
+        inputFrame.setRepeats(false);
+    }
+
+    public void keyPressed(KeyEvent event) {}
+
+    public void keyReleased(KeyEvent event) {
+        if (event.getKeyCode() == KeyEvent.VK_ESCAPE) engine.submit(OXOController::reset);
+    }
+
+    // = and - are consumed so they never reach the input box
+    public void keyTyped(KeyEvent event) {
+        if (event.getKeyChar() != '=' && event.getKeyChar() != '-') return;
+        thresholdChange += event.getKeyChar() == '=' ? 1 : -1;
+        event.consume();
+        if (!inputFrame.isRunning()) inputFrame.start();
+    }
+
+    void stop() {
+        inputFrame.stop();
+    }
+
+    // Once per frame with keys in it. The threshold is read on the engine's thread, which is the one that changes it
+    private void applyInput() {
+        frameEnded.run();
+        int change = thresholdChange;
+        thresholdChange = 0;
+        if (change != 0) {
+            engine.submit(controller -> controller.changeWinThreshold(model.getWinThreshold() + change));
+        }
+    }
+}
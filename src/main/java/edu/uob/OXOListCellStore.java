@@ -0,0 +1,86 @@
+package edu.uob;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The original nested list layout: one ArrayList of players per row
+class OXOListCellStore implements OXOCellStore {
+
+    private ArrayList<ArrayList<OXOPlayer>> cells;
+
+    OXOListCellStore(int numberOfRows, int numberOfColumns) {
+        cells = new ArrayList<>();
+        for (int i = 0; i < numberOfRows; i++) {
+            cells.add(new ArrayList<>());
+            for (int j = 0; j < numberOfColumns; j++) {
+                cells.get(i).add(null);
+            }
+        }
+    }
+
+    public int getNumberOfRows() {
+        return cells.size();
+    }
+
+    public int getNumberOfColumns() {
+        return cells.get(0).size();
+    }
+
+    public OXOPlayer get(int rowNumber, int colNumber) {
+        return cells.get(rowNumber).get(colNumber);
+    }
+
+    public void set(int rowNumber, int colNumber, OXOPlayer player) {
+        cells.get(rowNumber).set(colNumber, player);
+    }
+
+    public void addRow() {
+        ArrayList<OXOPlayer> row = new ArrayList<>();
+        for (int j = 0; j < getNumberOfColumns(); j++) {
+            row.add(null);
+        }
+        cells.add(row);
+    }
+
+    public void addColumn() {
+        for (int i = 0; i < getNumberOfRows(); i++) {
+            cells.get(i).add(null);
+        }
+    }
+
+    public void removeRow() {
+        cells.remove(cells.size() - 1);
+    }
+
+    public void removeColumn() {
+        int last = getNumberOfColumns() - 1;
+        for (int i = 0; i < getNumberOfRows(); i++) {
+            cells.get(i).remove(last);
+        }
+    }
+
+    public OXOListCellStore copy(List<OXOPlayer> players) {
+        OXOListCellStore copy = new OXOListCellStore(0, 0);
+        for (ArrayList<OXOPlayer> row : cells) {
+            copy.cells.add(new ArrayList<>(row));
+        }
+        return copy;
+    }
+
+    public void forEachOccupied(OXOCellVisitor visitor) {
+        for (int i = 0; i < getNumberOfRows(); i++) {
+            for (int j = 0; j < getNumberOfColumns(); j++) {
+                OXOPlayer owner = get(i, j);
+                if (owner != null) visitor.visit(i, j, owner);
+            }
+        }
+    }
+
+    public void clear() {
+        for (ArrayList<OXOPlayer> row : cells) {
+            for (int j = 0; j < row.size(); j++) {
+                row.set(j, null);
+            }
+        }
+    }
+}
@@ -1,26 +1,73 @@
 package edu.uob;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class OXOModel {
 
-    private ArrayList<ArrayList<OXOPlayer>> cells;
+    // How the cells are held in memory, the default can be picked with -Doxo.model.storage=BITBOARD
+    // SPARSE boards have no 9x9 cap and only use memory for claimed cells
+    public enum Storage { LIST, BITBOARD, SPARSE }
+
+    private OXOCellStore cells;
     private ArrayList<OXOPlayer> players;
     private int currentPlayerNumber;
     private OXOPlayer winner;
     private boolean gameDrawn;
     private int winThreshold;
+    // Kept up to date on every cell change so that draw and in-progress checks don't have to scan the board
+    private int occupiedCells;
+    private int[] occupiedCellsByPlayer;
+    private OXORunIndex runIndex;
+    // Zobrist hash of cells, current player, threshold and dimensions, updated on every change
+    private long positionHash;
+    private OXOModelListener listener;
 
     public OXOModel(int numberOfRows, int numberOfColumns, int winThresh) {
+        this(numberOfRows, numberOfColumns, winThresh, defaultStorage());
+    }
+
+    public OXOModel(int numberOfRows, int numberOfColumns, int winThresh, Storage storage) {
         winThreshold = winThresh;
-        cells = new ArrayList<>();
-        for (int i = 0; i < numberOfRows; i++) {
-            cells.add(new ArrayList<>());
-            for (int j = 0; j < numberOfColumns; j++) {
-                cells.get(i).add(null);
-            }
-        }
         players = new ArrayList<>();
+        occupiedCellsByPlayer = new int[2];
+        if (storage == Storage.SPARSE) {
+            cells = new OXOSparseCellStore(numberOfRows, numberOfColumns, players);
+        } else if (storage == Storage.BITBOARD) {
+            cells = new OXOBitboardCellStore(numberOfRows, numberOfColumns, players);
+        } else {
+            cells = new OXOListCellStore(numberOfRows, numberOfColumns);
+        }
+        // A dense index would materialise the whole of a sparse board, those fall back to walking the lines
+        if (storage != Storage.SPARSE) {
+            runIndex = new OXORunIndex(cells);
+        }
+        positionHash = emptyBoardHash();
+    }
+
+    // Independent model in the same state, sharing the OXOPlayer objects so owners still compare with ==
+    public OXOModel copy() {
+        return new OXOModel(this);
+    }
+
+    private OXOModel(OXOModel other) {
+        players = new ArrayList<>(other.players);
+        cells = other.cells.copy(players);
+        if (other.runIndex != null) {
+            runIndex = other.runIndex.copy(cells);
+        }
+        currentPlayerNumber = other.currentPlayerNumber;
+        winner = other.winner;
+        gameDrawn = other.gameDrawn;
+        winThreshold = other.winThreshold;
+        occupiedCells = other.occupiedCells;
+        occupiedCellsByPlayer = other.occupiedCellsByPlayer.clone();
+        positionHash = other.positionHash;
+    }
+
+    private static Storage defaultStorage() {
+        String name = System.getProperty("oxo.model.storage");
+        return name == null ? Storage.LIST : Storage.valueOf(name.trim().toUpperCase());
     }
 
     public int getNumberOfPlayers() {
@@ -29,6 +76,7 @@ public class OXOModel {
 
     public void addPlayer(OXOPlayer player) {
         players.add(player);
+        if (listener != null) listener.playerAdded(player);
     }
 
     public OXOPlayer getPlayerByNumber(int number) {
@@ -41,6 +89,7 @@ public class OXOModel {
 
     public void setWinner(OXOPlayer player) {
         winner = player;
+        if (listener != null) listener.winnerChanged(players.indexOf(player));
     }
 
     public int getCurrentPlayerNumber() {
@@ -48,27 +97,106 @@ public class OXOModel {
     }
 
     public void setCurrentPlayerNumber(int playerNumber) {
+        positionHash ^= OXOZobrist.playerKey(currentPlayerNumber) ^ OXOZobrist.playerKey(playerNumber);
         currentPlayerNumber = playerNumber;
+        if (listener != null) listener.currentPlayerChanged(playerNumber);
     }
 
     public int getNumberOfRows() {
-        return cells.size();
+        return cells.getNumberOfRows();
     }
 
     public int getNumberOfColumns() {
-        return cells.get(0).size();
+        return cells.getNumberOfColumns();
     }
 
     public OXOPlayer getCellOwner(int rowNumber, int colNumber) {
-        return cells.get(rowNumber).get(colNumber);
+        return cells.get(rowNumber, colNumber);
     }
 
+    // Only players added to the model can own cells, whatever the storage, and the cell is left alone for any other
     public void setCellOwner(int rowNumber, int colNumber, OXOPlayer player) {
-        cells.get(rowNumber).set(colNumber, player);
+        int index = player == null ? -1 : players.indexOf(player);
+        if (player != null && index < 0) {
+            throw new IllegalArgumentException("Player " + player.getPlayingLetter() + " has not been added to the model");
+        }
+        OXOPlayer previous = cells.get(rowNumber, colNumber);
+        cells.set(rowNumber, colNumber, player);
+        if (previous != null) {
+            int previousIndex = players.indexOf(previous);
+            countCell(previousIndex, -1);
+            positionHash ^= OXOZobrist.cellKey(rowNumber, colNumber, previousIndex);
+        }
+        if (player != null) {
+            countCell(index, 1);
+            positionHash ^= OXOZobrist.cellKey(rowNumber, colNumber, index);
+        }
+        if (runIndex != null) {
+            runIndex.cellChanged(rowNumber, colNumber, previous, player);
+        }
+        if (listener != null) listener.cellChanged(rowNumber, colNumber, index);
+    }
+
+    // Unbounded boards can grow past 9x9 and take multi-letter rows and multi-digit columns
+    public boolean isUnbounded() {
+        return cells instanceof OXOSparseCellStore;
+    }
+
+    // Length of the longest line through the cell, only answered (in O(1)) for the most recently claimed cell
+    // Returns -1 for any other cell
+    int getLastClaimRunLength(int rowNumber, int colNumber) {
+        return runIndex == null ? -1 : runIndex.longestRunThroughLastClaim(rowNumber, colNumber);
+    }
+
+    // Longest line the player would get by claiming the empty cell, or -1 if that can't be answered in O(1)
+    int getRunLengthIfClaimed(int rowNumber, int colNumber, OXOPlayer player) {
+        return runIndex == null ? -1 : runIndex.longestRunIfClaimed(rowNumber, colNumber, player);
+    }
+
+    public int getNumberOfOccupiedCells() {
+        return occupiedCells;
+    }
+
+    public int getNumberOfOccupiedCells(OXOPlayer player) {
+        int index = players.indexOf(player);
+        return index < 0 || index >= occupiedCellsByPlayer.length ? 0 : occupiedCellsByPlayer[index];
+    }
+
+    public boolean isBoardFull() {
+        return occupiedCells == (long) getNumberOfRows() * getNumberOfColumns();
+    }
+
+    // 64-bit key identifying the position, equal positions always have equal keys
+    public long getPositionHash() {
+        return positionHash;
+    }
+
+    private long emptyBoardHash() {
+        return OXOZobrist.playerKey(currentPlayerNumber)
+            ^ OXOZobrist.thresholdKey(winThreshold)
+            ^ OXOZobrist.dimensionsKey(getNumberOfRows(), getNumberOfColumns());
+    }
+
+    private void resized(int oldRows, int oldColumns) {
+        positionHash ^= OXOZobrist.dimensionsKey(oldRows, oldColumns)
+            ^ OXOZobrist.dimensionsKey(getNumberOfRows(), getNumberOfColumns());
+    }
+
+    private void countCell(int index, int delta) {
+        occupiedCells += delta;
+        if (index < 0) {
+            return;
+        }
+        if (index >= occupiedCellsByPlayer.length) {
+            occupiedCellsByPlayer = Arrays.copyOf(occupiedCellsByPlayer, Math.max(index + 1, occupiedCellsByPlayer.length * 2));
+        }
+        occupiedCellsByPlayer[index] += delta;
     }
 
     public void setWinThreshold(int winThresh) {
+        positionHash ^= OXOZobrist.thresholdKey(winThreshold) ^ OXOZobrist.thresholdKey(winThresh);
         winThreshold = winThresh;
+        if (listener != null) listener.winThresholdChanged(winThresh);
     }
 
     public int getWinThreshold() {
@@ -77,6 +205,13 @@ public class OXOModel {
 
     public void setGameDrawn() {
         gameDrawn = true;
+        if (listener != null) listener.gameDrawn();
+    }
+
+    // Takes a draw back, for when the move that filled the board is undone
+    void clearGameDrawn() {
+        gameDrawn = false;
+        if (listener != null) listener.gameDrawnCleared();
     }
 
     public boolean isGameDrawn() {
@@ -84,64 +219,145 @@ public class OXOModel {
     }
 
     public void addColumn() {
-        if (getNumberOfColumns() >= 9) {
+        if (getNumberOfColumns() >= 9 && !isUnbounded()) {
             return;
         }
-        for (int i = 0; i < getNumberOfRows(); i++) {
-            cells.get(i).add(null);
-        }
+        cells.addColumn();
+        resized(getNumberOfRows(), getNumberOfColumns() - 1);
+        if (listener != null) listener.columnAdded();
     }
 
     public void addRow() {
-        if (getNumberOfRows() >= 9) {
+        if (getNumberOfRows() >= 9 && !isUnbounded()) {
             return;
         }
-        ArrayList<OXOPlayer> row = new ArrayList<>();
-        for (int j = 0; j < getNumberOfColumns(); j++) {
-            row.add(null);
+        cells.addRow();
+        resized(getNumberOfRows() - 1, getNumberOfColumns());
+        if (runIndex != null) {
+            runIndex.rowAdded();
         }
-        cells.add(row);
+        if (listener != null) listener.rowAdded();
     }
 
     public void removeColumn() {
-        int numColumns = getNumberOfColumns();
-        if (numColumns > 1) {
-            for (int i = 0; i < getNumberOfRows(); i++) {
-                cells.get(i).remove(numColumns - 1);
+        if (getNumberOfColumns() > 1) {
+            int last = getNumberOfColumns() - 1;
+            if (cells instanceof OXOSparseCellStore sparse) {
+                for (int i = sparse.nextOccupiedInColumn(last, 0); i >= 0; i = sparse.nextOccupiedInColumn(last, i + 1)) {
+                    setCellOwner(i, last, null);
+                }
+            } else {
+                for (int i = 0; i < getNumberOfRows(); i++) {
+                    if (cells.get(i, last) != null) setCellOwner(i, last, null);
+                }
             }
+            cells.removeColumn();
+            resized(getNumberOfRows(), last + 1);
+            if (listener != null) listener.columnRemoved();
         }
     }
 
     public void removeRow() {
         if (getNumberOfRows() > 1) {
-            cells.remove(cells.size() - 1);
+            int last = getNumberOfRows() - 1;
+            if (cells instanceof OXOSparseCellStore sparse) {
+                for (int j = sparse.nextOccupiedInRow(last, 0); j >= 0; j = sparse.nextOccupiedInRow(last, j + 1)) {
+                    setCellOwner(last, j, null);
+                }
+            } else {
+                for (int j = 0; j < getNumberOfColumns(); j++) {
+                    if (cells.get(last, j) != null) setCellOwner(last, j, null);
+                }
+            }
+            cells.removeRow();
+            resized(last + 1, getNumberOfColumns());
+            if (listener != null) listener.rowRemoved();
         }
     }
 
-    public boolean isGameInProcess() {
-        for (ArrayList<OXOPlayer> cell : cells) {
-            for (OXOPlayer oxoPlayer : cell) {
-                if (oxoPlayer != null) {
-                    return true;
-                }
+    // Brings this model to the state in the snapshot, changing only what differs, so a copy of a model can follow
+    // what its writer has published. The snapshot must be of a model with the same players and storage
+    void copyFrom(OXOModelSnapshot snapshot) {
+        while (getNumberOfRows() < snapshot.getNumberOfRows()) addRow();
+        while (getNumberOfRows() > snapshot.getNumberOfRows()) removeRow();
+        while (getNumberOfColumns() < snapshot.getNumberOfColumns()) addColumn();
+        while (getNumberOfColumns() > snapshot.getNumberOfColumns()) removeColumn();
+        for (int i = 0; i < getNumberOfRows(); i++) {
+            for (int j = 0; j < getNumberOfColumns(); j++) {
+                int ownerNumber = snapshot.getCellOwnerNumber(i, j);
+                OXOPlayer owner = ownerNumber < 0 ? null : players.get(ownerNumber);
+                if (cells.get(i, j) != owner) setCellOwner(i, j, owner);
             }
         }
+        if (winThreshold != snapshot.getWinThreshold()) setWinThreshold(snapshot.getWinThreshold());
+        if (currentPlayerNumber != snapshot.getCurrentPlayerNumber()) setCurrentPlayerNumber(snapshot.getCurrentPlayerNumber());
+        OXOPlayer snapshotWinner = snapshot.getWinnerNumber() < 0 ? null : players.get(snapshot.getWinnerNumber());
+        if (winner != snapshotWinner) setWinner(snapshotWinner);
+        if (gameDrawn != snapshot.isGameDrawn()) {
+            if (snapshot.isGameDrawn()) setGameDrawn();
+            else clearGameDrawn();
+        }
+    }
+
+    // Bracket changes that belong together, such as the cell, winner and turn of one move, and may be nested
+    // Nothing to do here, OXOConcurrentModel only lets readers see the changes once the outermost group ends
+    void beginChange() {
+    }
+
+    void endChange() {
+    }
+
+    // Visits only the claimed cells, so it is cheap on large sparse boards
+    void forEachOccupiedCell(OXOCellVisitor visitor) {
+        cells.forEachOccupied(visitor);
+    }
+
+    public boolean isRowOccupied(int rowNumber) {
+        if (cells instanceof OXOSparseCellStore sparse) {
+            return sparse.nextOccupiedInRow(rowNumber, 0) >= 0;
+        }
+        for (int j = 0; j < getNumberOfColumns(); j++) {
+            if (cells.get(rowNumber, j) != null) return true;
+        }
+        return false;
+    }
+
+    public boolean isColumnOccupied(int colNumber) {
+        if (cells instanceof OXOSparseCellStore sparse) {
+            return sparse.nextOccupiedInColumn(colNumber, 0) >= 0;
+        }
+        for (int i = 0; i < getNumberOfRows(); i++) {
+            if (cells.get(i, colNumber) != null) return true;
+        }
         return false;
     }
 
+    public boolean isGameInProcess() {
+        return occupiedCells > 0;
+    }
+
     public void reset() {
-        int numRows = getNumberOfRows();
-        int numColumns = getNumberOfColumns();
-        cells = new ArrayList<>();
-        for (int i = 0; i < numRows; i++) {
-            ArrayList<OXOPlayer> row = new ArrayList<>();
-            for (int j = 0; j < numColumns; j++) {
-                row.add(null);
-            }
-            cells.add(row);
+        cells.clear();
+        if (runIndex != null) {
+            runIndex.cleared();
         }
+        occupiedCells = 0;
+        Arrays.fill(occupiedCellsByPlayer, 0);
         currentPlayerNumber = 0;
         winner = null;
         gameDrawn = false;
+        positionHash = emptyBoardHash();
+        if (listener != null) listener.reset();
+    }
+
+    // Only one listener at a time, null to stop listening. Copies of the model don't take the listener with them
+    public void setListener(OXOModelListener modelListener) {
+        listener = modelListener;
+    }
+
+    Storage getStorage() {
+        if (cells instanceof OXOSparseCellStore) return Storage.SPARSE;
+        if (cells instanceof OXOBitboardCellStore) return Storage.BITBOARD;
+        return Storage.LIST;
     }
 }
@@ -0,0 +1,30 @@
+package edu.uob;
+
+// Told about every change to an OXOModel straight after it is made, see OXOModel.setListener
+// Players are given by number and -1 stands for nobody, so listening allocates nothing
+public interface OXOModelListener {
+    void playerAdded(OXOPlayer player);
+
+    // Also called with -1 when a cell is cleared, including by removeRow and removeColumn before the board shrinks
+    void cellChanged(int rowNumber, int colNumber, int playerNumber);
+
+    void currentPlayerChanged(int playerNumber);
+
+    void winnerChanged(int playerNumber);
+
+    void gameDrawn();
+
+    void gameDrawnCleared();
+
+    void winThresholdChanged(int winThreshold);
+
+    void rowAdded();
+
+    void rowRemoved();
+
+    void columnAdded();
+
+    void columnRemoved();
+
+    void reset();
+}
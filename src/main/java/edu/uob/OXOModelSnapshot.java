@@ -0,0 +1,52 @@
+package edu.uob;
+
+// Copy of a model's state at one moment, as taken by OXOConcurrentModel.snapshot
+// Players and the winner are given by player number, empty cells and "no winner" by -1
+public class OXOModelSnapshot {
+    int rows;
+    int columns;
+    int[] owners = new int[0];
+    int numberOfPlayers;
+    int currentPlayerNumber;
+    int winnerNumber;
+    boolean gameDrawn;
+    int winThreshold;
+    long version;
+
+    public int getNumberOfRows() {
+        return rows;
+    }
+
+    public int getNumberOfColumns() {
+        return columns;
+    }
+
+    public int getCellOwnerNumber(int rowNumber, int colNumber) {
+        return owners[rowNumber * columns + colNumber];
+    }
+
+    public int getNumberOfPlayers() {
+        return numberOfPlayers;
+    }
+
+    public int getCurrentPlayerNumber() {
+        return currentPlayerNumber;
+    }
+
+    public int getWinnerNumber() {
+        return winnerNumber;
+    }
+
+    public boolean isGameDrawn() {
+        return gameDrawn;
+    }
+
+    public int getWinThreshold() {
+        return winThreshold;
+    }
+
+    // Goes up with every change to the model, equal versions mean nothing has changed in between
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,295 @@
+package edu.uob;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Monte Carlo tree search player for positions too big for OXOSolver: large or unbounded boards and three or more players
+// Every worker thread grows its own search tree from the same root (root parallelisation), so the threads share nothing
+// while they search and the visit counts of the root moves are added up at the end
+// Trees are kept in flat arrays and games are played out on an OXOPlayoutBoard, so an iteration allocates nothing
+// Each player is scored for themselves (1 for a win, 0.5 for a draw), which works for any number of players
+public class OXOMonteCarloPlayer {
+    private static final long DEFAULT_MILLIS_PER_MOVE = 1000;
+    // Largest board window played out, bigger (unbounded) boards are cut down to a window around the claimed cells
+    private static final int MAX_PLAYOUT_CELLS = 32 * 32;
+    private static final int INITIAL_NODES = 1 << 12;
+    // Nodes for all the workers' trees together, shared out between them. A node takes 33 bytes, so this is about 35MB
+    // however many threads the pool has
+    private static final int DEFAULT_MAX_NODES = 1 << 20;
+    private static final double EXPLORATION = Math.sqrt(2);
+    // How many iterations run between looks at the clock
+    private static final int CLOCK_INTERVAL = 64;
+
+    private final ForkJoinPool pool;
+    private final long millisPerMove;
+    private final long iterationsPerMove;
+    private final int maxNodes;
+    private final SplittableRandom seeds = new SplittableRandom();
+    private volatile long lastIterations;
+
+    public OXOMonteCarloPlayer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MILLIS_PER_MOVE, 0);
+    }
+
+    public OXOMonteCarloPlayer(ForkJoinPool pool, long millisPerMove, long iterationsPerMove) {
+        this(pool, millisPerMove, iterationsPerMove, DEFAULT_MAX_NODES);
+    }
+
+    // Searching stops at whichever budget runs out first, 0 means no limit of that kind but one of them must be set
+    // The iteration budget and the nodes the trees may hold, which bound the memory a search takes, are shared out
+    // between the pool's threads. Once a tree is full its worker carries on playing out from the leaves it has
+    // Every tree gets room for the root and its children even if that takes it past its share, as a worker that
+    // can't expand the root plays out nothing but the root and its playouts count for no move
+    public OXOMonteCarloPlayer(ForkJoinPool pool, long millisPerMove, long iterationsPerMove, int maxNodes) {
+        if (millisPerMove <= 0 && iterationsPerMove <= 0) {
+            throw new IllegalArgumentException("A time or iteration budget is needed");
+        }
+        if (maxNodes < 1) {
+            throw new IllegalArgumentException("Trees need room for at least one node: " + maxNodes);
+        }
+        this.pool = pool;
+        this.millisPerMove = millisPerMove;
+        this.iterationsPerMove = iterationsPerMove;
+        this.maxNodes = maxNodes;
+    }
+
+    // Identifier of the move for the current player, ready for OXOController.handleIncomingCommand
+    // Returns null when the game is over or there is nowhere left to play
+    public String chooseMove(OXOModel model) {
+        if (model.getWinner() != null || model.isGameDrawn() || model.isBoardFull()) {
+            return null;
+        }
+        OXOPlayoutBoard board = OXOPlayoutBoard.fromModel(model, MAX_PLAYOUT_CELLS);
+        int cell = chooseCell(board);
+        if (cell < 0) {
+            return firstEmptyCell(model);
+        }
+        return OXOController.cellIdentifier(board.rowOffset + cell / board.columns, board.colOffset + cell % board.columns);
+    }
+
+    // Iterations run by all threads for the last chooseMove
+    public long getLastIterations() {
+        return lastIterations;
+    }
+
+    private int chooseCell(OXOPlayoutBoard board) {
+        lastIterations = 0;
+        if (board.getEmptyCount() == 0) {
+            return -1;
+        }
+        int mover = board.getCurrentPlayer();
+        for (int i = 0; i < board.getEmptyCount(); i++) {
+            if (board.winsWith(board.getEmptyCell(i), mover)) {
+                return board.getEmptyCell(i);
+            }
+        }
+        if (board.getEmptyCount() == 1) {
+            return board.getEmptyCell(0);
+        }
+        int threads = Math.max(1, pool.getParallelism());
+        long deadline = millisPerMove > 0 ? System.nanoTime() + millisPerMove * 1_000_000 : Long.MAX_VALUE;
+        long iterations = iterationsPerMove > 0 ? Math.max(1, iterationsPerMove / threads) : Long.MAX_VALUE;
+        int nodesPerWorker = Math.max(1 + board.getEmptyCount(), maxNodes / threads);
+        List<Worker> workers = new ArrayList<>();
+        synchronized (seeds) {
+            for (int t = 0; t < threads; t++) {
+                workers.add(new Worker(new OXOPlayoutBoard(board), seeds.split(), deadline, iterations, nodesPerWorker));
+            }
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(workers);
+            }
+        });
+        long[] visits = new long[board.rows * board.columns];
+        long total = 0;
+        for (Worker worker : workers) {
+            worker.addRootVisits(visits);
+            total += worker.iterations;
+        }
+        lastIterations = total;
+        // The most visited move is the one the search trusted most, ties go to the lowest cell
+        int best = board.getEmptyCell(0);
+        for (int i = 0; i < board.getEmptyCount(); i++) {
+            int cell = board.getEmptyCell(i);
+            if (visits[cell] > visits[best] || (visits[cell] == visits[best] && cell < best)) best = cell;
+        }
+        return best;
+    }
+
+    private static String firstEmptyCell(OXOModel model) {
+        for (int row = 0; row < model.getNumberOfRows(); row++) {
+            for (int col = 0; col < model.getNumberOfColumns(); col++) {
+                if (model.getCellOwner(row, col) == null) return OXOController.cellIdentifier(row, col);
+            }
+        }
+        return null;
+    }
+
+    // One thread's search tree, node 0 is the root and the children of a node are stored next to each other
+    private static class Worker extends RecursiveAction {
+        private static final long serialVersionUID = 1;
+        private static final byte OPEN = 0;
+        private static final byte WON = 1;
+        private static final byte DRAWN = 2;
+
+        private final OXOPlayoutBoard root;
+        private final OXOPlayoutBoard board;
+        private final SplittableRandom random;
+        private final long deadline;
+        private final long maxIterations;
+        private final int maxNodes;
+        // Per node: the cell played to reach it, who played it, how the game stands after it, where its children start
+        // (-1 until it is expanded), how many there are, and the visit count and total reward for the player who moved
+        private int[] move;
+        private int[] mover;
+        private byte[] state;
+        private int[] firstChild;
+        private int[] childCount;
+        private int[] visits;
+        private double[] rewards;
+        private int nodes;
+        private final int[] path;
+        long iterations;
+
+        Worker(OXOPlayoutBoard root, SplittableRandom random, long deadline, long maxIterations, int maxNodes) {
+            this.root = root;
+            board = new OXOPlayoutBoard(root);
+            this.random = random;
+            this.deadline = deadline;
+            this.maxIterations = maxIterations;
+            this.maxNodes = maxNodes;
+            int initialNodes = Math.min(INITIAL_NODES, maxNodes);
+            move = new int[initialNodes];
+            mover = new int[initialNodes];
+            state = new byte[initialNodes];
+            firstChild = new int[initialNodes];
+            childCount = new int[initialNodes];
+            visits = new int[initialNodes];
+            rewards = new double[initialNodes];
+            path = new int[root.rows * root.columns + 1];
+            move[0] = -1;
+            mover[0] = -1;
+            firstChild[0] = -1;
+            nodes = 1;
+        }
+
+        @Override
+        protected void compute() {
+            while (iterations < maxIterations) {
+                if (iterations % CLOCK_INTERVAL == 0 && System.nanoTime() >= deadline) {
+                    break;
+                }
+                iterate();
+                iterations++;
+            }
+        }
+
+        void addRootVisits(long[] totals) {
+            for (int child = firstChild[0]; child >= 0 && child < firstChild[0] + childCount[0]; child++) {
+                totals[move[child]] += visits[child];
+            }
+        }
+
+        private void iterate() {
+            board.copyFrom(root);
+            int node = 0;
+            int depth = 0;
+            path[depth++] = node;
+            // Selection: follow the best looking child down to a node that hasn't been expanded
+            while (state[node] == OPEN && firstChild[node] >= 0) {
+                node = select(node);
+                path[depth++] = node;
+                board.play(move[node]);
+            }
+            // Expansion: a node is only expanded on its second visit, which keeps the tree to the lines worth following
+            if (state[node] == OPEN && (node == 0 || visits[node] > 0) && expand(node)) {
+                node = firstChild[node] + random.nextInt(childCount[node]);
+                path[depth++] = node;
+                board.play(move[node]);
+            }
+            int winner;
+            if (state[node] == WON) {
+                winner = mover[node];
+            } else if (state[node] == DRAWN) {
+                winner = OXOPlayoutBoard.NO_WINNER;
+            } else {
+                winner = board.playOut(random);
+            }
+            for (int i = 0; i < depth; i++) {
+                int n = path[i];
+                visits[n]++;
+                if (winner == OXOPlayoutBoard.NO_WINNER) rewards[n] += 0.5;
+                else if (winner == mover[n]) rewards[n] += 1;
+            }
+        }
+
+        private int select(int node) {
+            double logVisits = Math.log(visits[node]);
+            int best = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+                if (visits[child] == 0) {
+                    return child;
+                }
+                double score = rewards[child] / visits[child] + EXPLORATION * Math.sqrt(logVisits / visits[child]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        // Adds a child for every empty cell, noting which of them end the game, false when the tree is full
+        private boolean expand(int node) {
+            int count = board.getEmptyCount();
+            if (count == 0 || !reserve(nodes + count)) {
+                return false;
+            }
+            int player = board.getCurrentPlayer();
+            int first = nodes;
+            for (int i = 0; i < count; i++) {
+                int child = first + i;
+                int cell = board.getEmptyCell(i);
+                move[child] = cell;
+                mover[child] = player;
+                firstChild[child] = -1;
+                childCount[child] = 0;
+                visits[child] = 0;
+                rewards[child] = 0;
+                if (board.winsWith(cell, player)) state[child] = WON;
+                else if (count == 1) state[child] = DRAWN;
+                else state[child] = OPEN;
+            }
+            firstChild[node] = first;
+            childCount[node] = count;
+            nodes += count;
+            return true;
+        }
+
+        // Grows the node arrays to hold at least the given number of nodes, false once that would pass maxNodes
+        private boolean reserve(int needed) {
+            if (needed <= move.length) {
+                return true;
+            }
+            if (needed > maxNodes) {
+                return false;
+            }
+            int capacity = Math.min(maxNodes, Math.max(needed, move.length * 2));
+            move = Arrays.copyOf(move, capacity);
+            mover = Arrays.copyOf(mover, capacity);
+            state = Arrays.copyOf(state, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            childCount = Arrays.copyOf(childCount, capacity);
+            visits = Arrays.copyOf(visits, capacity);
+            rewards = Arrays.copyOf(rewards, capacity);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package edu.uob;
+
+// Outcome of OXOController.tryIncomingCommand, one for each OXOMoveException so that invalid input can be turned away
+// without building a message or a stack trace
+public enum OXOMoveResult {
+    OK,
+    // The game already has a winner, the move is ignored (handleIncomingCommand returns without throwing)
+    GAME_OVER,
+    INVALID_IDENTIFIER_LENGTH,
+    INVALID_ROW_CHARACTER,
+    INVALID_COLUMN_CHARACTER,
+    ROW_OUTSIDE_RANGE,
+    COLUMN_OUTSIDE_RANGE,
+    CELL_ALREADY_TAKEN;
+
+    public boolean isAccepted() {
+        return this == OK;
+    }
+}
@@ -0,0 +1,255 @@
+package edu.uob;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+// Compact binary form of a whole model, for checkpoints and for sending games elsewhere
+// A header of varints (rows, columns, threshold, players, each player's letter, current player, winner + 1 and a
+// drawn flag) is followed by the cells, ceil(log2(players + 1)) bits each holding player number + 1 (0 when empty),
+// row by row and least significant bit first. A 9x9 board with two players takes under 30 bytes
+// wrap() reads a packed model in place: only the header is decoded, cells are read out of the buffer when asked for
+public final class OXOPackedModel {
+    // Cells are read three bytes at a time, which leaves room for 16 bits per cell
+    static final int MAX_PLAYERS = (1 << 16) - 1;
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int rows;
+    private final int columns;
+    private final int winThreshold;
+    private final int numberOfPlayers;
+    private final int lettersOffset;
+    private final int currentPlayerNumber;
+    private final int winnerNumber;
+    private final boolean gameDrawn;
+    private final int cellsOffset;
+    private final int bitsPerCell;
+    private final int size;
+
+    private OXOPackedModel(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        int[] at = { offset };
+        rows = readVarint(buffer, at);
+        columns = readVarint(buffer, at);
+        winThreshold = readVarint(buffer, at);
+        numberOfPlayers = readVarint(buffer, at);
+        if (numberOfPlayers > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Packed model has " + numberOfPlayers + " players");
+        }
+        lettersOffset = at[0];
+        for (int p = 0; p < numberOfPlayers; p++) {
+            readVarint(buffer, at);
+        }
+        currentPlayerNumber = readVarint(buffer, at);
+        int result = readVarint(buffer, at);
+        winnerNumber = (result >>> 1) - 1;
+        gameDrawn = (result & 1) != 0;
+        cellsOffset = at[0];
+        bitsPerCell = bitsPerCell(numberOfPlayers);
+        size = cellsOffset - offset + cellBytes(rows, columns, bitsPerCell);
+        if (offset + size > buffer.limit()) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    // Reads the packed model starting at the buffer's position and moves the position past it
+    // The buffer is not copied, so it mustn't change while the returned view is in use
+    public static OXOPackedModel wrap(ByteBuffer buffer) {
+        OXOPackedModel packed = new OXOPackedModel(buffer, buffer.position());
+        buffer.position(buffer.position() + packed.size);
+        return packed;
+    }
+
+    public static byte[] pack(OXOModel model) {
+        ByteBuffer buffer = ByteBuffer.allocate(packedSize(model));
+        pack(model, buffer);
+        return buffer.array();
+    }
+
+    // Writes the model at the buffer's position and moves the position past it, returns the bytes written
+    public static int pack(OXOModel model, ByteBuffer buffer) {
+        int players = model.getNumberOfPlayers();
+        if (players > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Only models with up to " + MAX_PLAYERS + " players can be packed");
+        }
+        int start = buffer.position();
+        writeVarint(buffer, model.getNumberOfRows());
+        writeVarint(buffer, model.getNumberOfColumns());
+        writeVarint(buffer, model.getWinThreshold());
+        writeVarint(buffer, players);
+        for (int p = 0; p < players; p++) {
+            writeVarint(buffer, model.getPlayerByNumber(p).getPlayingLetter());
+        }
+        writeVarint(buffer, model.getCurrentPlayerNumber());
+        writeVarint(buffer, (playerNumber(model, model.getWinner()) + 1) << 1 | (model.isGameDrawn() ? 1 : 0));
+        int bits = bitsPerCell(players);
+        int cells = buffer.position();
+        int length = cellBytes(model.getNumberOfRows(), model.getNumberOfColumns(), bits);
+        for (int i = 0; i < length; i++) {
+            buffer.put((byte) 0);
+        }
+        int columns = model.getNumberOfColumns();
+        model.forEachOccupiedCell((row, col, owner) -> {
+            long bit = ((long) row * columns + col) * bits;
+            int value = playerNumber(model, owner) + 1;
+            for (int b = 0; b < bits; b++, bit++) {
+                if ((value >>> b & 1) != 0) {
+                    int index = cells + (int) (bit >>> 3);
+                    buffer.put(index, (byte) (buffer.get(index) | 1 << (bit & 7)));
+                }
+            }
+        });
+        return buffer.position() - start;
+    }
+
+    // Exact number of bytes pack will write for the model
+    public static int packedSize(OXOModel model) {
+        int players = model.getNumberOfPlayers();
+        int size = varintSize(model.getNumberOfRows()) + varintSize(model.getNumberOfColumns())
+            + varintSize(model.getWinThreshold()) + varintSize(players) + varintSize(model.getCurrentPlayerNumber())
+            + varintSize((playerNumber(model, model.getWinner()) + 1) << 1 | 1);
+        for (int p = 0; p < players; p++) {
+            size += varintSize(model.getPlayerByNumber(p).getPlayingLetter());
+        }
+        return size + cellBytes(model.getNumberOfRows(), model.getNumberOfColumns(), bitsPerCell(players));
+    }
+
+    // Bytes taken by this packed model, header included
+    public int getPackedSize() {
+        return size;
+    }
+
+    public int getNumberOfRows() {
+        return rows;
+    }
+
+    public int getNumberOfColumns() {
+        return columns;
+    }
+
+    public int getWinThreshold() {
+        return winThreshold;
+    }
+
+    public int getNumberOfPlayers() {
+        return numberOfPlayers;
+    }
+
+    public char getPlayingLetter(int playerNumber) {
+        if (playerNumber < 0 || playerNumber >= numberOfPlayers) {
+            throw new IndexOutOfBoundsException("No player " + playerNumber);
+        }
+        int[] at = { lettersOffset };
+        for (int p = 0; p < playerNumber; p++) {
+            readVarint(buffer, at);
+        }
+        return (char) readVarint(buffer, at);
+    }
+
+    public int getCurrentPlayerNumber() {
+        return currentPlayerNumber;
+    }
+
+    // -1 when nobody has won
+    public int getWinnerNumber() {
+        return winnerNumber;
+    }
+
+    public boolean isGameDrawn() {
+        return gameDrawn;
+    }
+
+    // -1 for an empty cell
+    public int getCellOwnerNumber(int rowNumber, int colNumber) {
+        if (rowNumber < 0 || rowNumber >= rows || colNumber < 0 || colNumber >= columns) {
+            throw new IndexOutOfBoundsException("No cell at " + rowNumber + ", " + colNumber);
+        }
+        if (bitsPerCell == 0) {
+            return -1;
+        }
+        long bit = ((long) rowNumber * columns + colNumber) * bitsPerCell;
+        int index = cellsOffset + (int) (bit >>> 3);
+        int end = offset + size;
+        int word = buffer.get(index) & 0xFF;
+        if (index + 1 < end) word |= (buffer.get(index + 1) & 0xFF) << 8;
+        if (index + 2 < end) word |= (buffer.get(index + 2) & 0xFF) << 16;
+        return (word >>> (bit & 7) & ((1 << bitsPerCell) - 1)) - 1;
+    }
+
+    // A new model in the packed state, with new OXOPlayer objects
+    public OXOModel toModel() {
+        boolean large = rows > 9 || columns > 9;
+        return toModel(large ? OXOModel.Storage.SPARSE : OXOModel.Storage.LIST);
+    }
+
+    public OXOModel toModel(OXOModel.Storage storage) {
+        OXOModel model = new OXOModel(rows, columns, winThreshold, storage);
+        for (int p = 0; p < numberOfPlayers; p++) {
+            model.addPlayer(new OXOPlayer(getPlayingLetter(p)));
+        }
+        if (bitsPerCell > 0) {
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < columns; col++) {
+                    int owner = getCellOwnerNumber(row, col);
+                    if (owner >= 0) model.setCellOwner(row, col, model.getPlayerByNumber(owner));
+                }
+            }
+        }
+        model.setCurrentPlayerNumber(currentPlayerNumber);
+        if (winnerNumber >= 0) {
+            model.setWinner(model.getPlayerByNumber(winnerNumber));
+        }
+        if (gameDrawn) {
+            model.setGameDrawn();
+        }
+        return model;
+    }
+
+    static int bitsPerCell(int players) {
+        return 32 - Integer.numberOfLeadingZeros(players);
+    }
+
+    private static int cellBytes(int rows, int columns, int bitsPerCell) {
+        long bytes = ((long) rows * columns * bitsPerCell + 7) >>> 3;
+        if (bytes > Integer.MAX_VALUE - 64) {
+            throw new IllegalArgumentException("A " + rows + "x" + columns + " board is too large to pack");
+        }
+        return (int) bytes;
+    }
+
+    private static int playerNumber(OXOModel model, OXOPlayer player) {
+        for (int p = 0; p < model.getNumberOfPlayers(); p++) {
+            if (model.getPlayerByNumber(p) == player) return p;
+        }
+        return -1;
+    }
+
+    // Unsigned LEB128: seven bits per byte, the top bit set on every byte but the last
+    private static void writeVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int varintSize(int value) {
+        return Math.max(1, (38 - Integer.numberOfLeadingZeros(value)) / 7);
+    }
+
+    private static int readVarint(ByteBuffer buffer, int[] at) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (at[0] >= buffer.limit()) {
+                throw new BufferUnderflowException();
+            }
+            int b = buffer.get(at[0]++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in packed model");
+    }
+}
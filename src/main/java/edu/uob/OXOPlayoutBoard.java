@@ -0,0 +1,226 @@
+package edu.uob;
+
+import java.util.SplittableRandom;
+
+// Compact board for playing thousands of games quickly, with the same rules as OXOController:
+// players move in turn and a move wins when it makes a line of at least winThreshold cells in any of the four directions
+// Everything is held in primitive arrays that are allocated once, so playing and restarting games allocates nothing
+// Boards too large to copy are reduced to a window around the claimed cells (rowOffset/colOffset give its position)
+final class OXOPlayoutBoard {
+    static final int NO_WINNER = -1;
+    private static final int MAX_WINDOW_CENTRES = 1024;
+    private static final int[] ROW_STEP = { 0, 1, 1, 1 };
+    private static final int[] COL_STEP = { 1, 0, 1, -1 };
+
+    final int rows;
+    final int columns;
+    final int threshold;
+    final int players;
+    final int rowOffset;
+    final int colOffset;
+
+    // Player number + 1 for every cell, 0 when empty, as it was when the board was created
+    private final byte[] startCells;
+    private final int startPlayer;
+    private final byte[] cells;
+    // Empty cells in no particular order, and where each cell currently sits in that list
+    private final int[] empty;
+    private final int[] emptyPosition;
+    private int emptyCount;
+    private int currentPlayer;
+
+    OXOPlayoutBoard(int rows, int columns, int threshold, int players) {
+        this(rows, columns, threshold, players, 0, 0, new byte[rows * columns], 0);
+    }
+
+    private OXOPlayoutBoard(int rows, int columns, int threshold, int players, int rowOffset, int colOffset, byte[] startCells, int startPlayer) {
+        if (players >= Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Playout boards support at most " + (Byte.MAX_VALUE - 1) + " players");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.threshold = threshold;
+        this.players = players;
+        this.rowOffset = rowOffset;
+        this.colOffset = colOffset;
+        this.startCells = startCells;
+        this.startPlayer = startPlayer;
+        cells = new byte[rows * columns];
+        empty = new int[rows * columns];
+        emptyPosition = new int[rows * columns];
+        restart();
+    }
+
+    // Separate working arrays over the same starting position, so each thread can have its own board
+    OXOPlayoutBoard(OXOPlayoutBoard other) {
+        this(other.rows, other.columns, other.threshold, other.players, other.rowOffset, other.colOffset, other.startCells, other.startPlayer);
+    }
+
+    // Copies the model, or for boards of more than maxCells cells a square window over where most cells are claimed
+    static OXOPlayoutBoard fromModel(OXOModel model, int maxCells) {
+        int rows = model.getNumberOfRows();
+        int columns = model.getNumberOfColumns();
+        int top = 0;
+        int left = 0;
+        if ((long) rows * columns > maxCells) {
+            int side = (int) Math.sqrt(maxCells);
+            int windowRows = Math.min(rows, side);
+            int windowCols = Math.min(columns, side);
+            int[] centre = densestCentre(model, windowRows, windowCols);
+            top = Math.max(0, Math.min(rows - windowRows, centre[0] - windowRows / 2));
+            left = Math.max(0, Math.min(columns - windowCols, centre[1] - windowCols / 2));
+            rows = windowRows;
+            columns = windowCols;
+        }
+        byte[] start = new byte[rows * columns];
+        int windowTop = top;
+        int windowLeft = left;
+        int windowRows = rows;
+        int windowCols = columns;
+        int players = model.getNumberOfPlayers();
+        model.forEachOccupiedCell((row, col, owner) -> {
+            int r = row - windowTop;
+            int c = col - windowLeft;
+            if (r < 0 || c < 0 || r >= windowRows || c >= windowCols) return;
+            for (int p = 0; p < players; p++) {
+                if (model.getPlayerByNumber(p) == owner) start[r * windowCols + c] = (byte) (p + 1);
+            }
+        });
+        return new OXOPlayoutBoard(rows, columns, model.getWinThreshold(), players, top, left, start, model.getCurrentPlayerNumber());
+    }
+
+    // Claimed cell with the most claimed cells in a window centred on it, ties going to the player to move
+    // An empty board is centred in the middle, and very full boards only try every few cells as the centre
+    private static int[] densestCentre(OXOModel model, int windowRows, int windowCols) {
+        int claimed = model.getNumberOfOccupiedCells();
+        if (claimed == 0) {
+            return new int[] { model.getNumberOfRows() / 2, model.getNumberOfColumns() / 2 };
+        }
+        int[] cellRows = new int[claimed];
+        int[] cellCols = new int[claimed];
+        boolean[] movers = new boolean[claimed];
+        OXOPlayer mover = model.getPlayerByNumber(model.getCurrentPlayerNumber());
+        int[] count = { 0 };
+        model.forEachOccupiedCell((row, col, owner) -> {
+            cellRows[count[0]] = row;
+            cellCols[count[0]] = col;
+            movers[count[0]++] = owner == mover;
+        });
+        int best = 0;
+        long bestScore = -1;
+        int stride = Math.max(1, claimed / MAX_WINDOW_CENTRES);
+        for (int i = 0; i < claimed; i += stride) {
+            long score = 0;
+            for (int j = 0; j < claimed; j++) {
+                if (Math.abs(cellRows[j] - cellRows[i]) <= windowRows / 2 && Math.abs(cellCols[j] - cellCols[i]) <= windowCols / 2) {
+                    score += movers[j] ? claimed + 1 : claimed;
+                }
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        return new int[] { cellRows[best], cellCols[best] };
+    }
+
+    // Back to the position the board was created with
+    void restart() {
+        System.arraycopy(startCells, 0, cells, 0, cells.length);
+        emptyCount = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == 0) {
+                emptyPosition[cell] = emptyCount;
+                empty[emptyCount++] = cell;
+            }
+        }
+        currentPlayer = startPlayer;
+    }
+
+    // Same position as the other board, which must have the same size
+    void copyFrom(OXOPlayoutBoard other) {
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+        System.arraycopy(other.empty, 0, empty, 0, other.emptyCount);
+        System.arraycopy(other.emptyPosition, 0, emptyPosition, 0, emptyPosition.length);
+        emptyCount = other.emptyCount;
+        currentPlayer = other.currentPlayer;
+    }
+
+    int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    int getEmptyCount() {
+        return emptyCount;
+    }
+
+    int getEmptyCell(int index) {
+        return empty[index];
+    }
+
+    int getOwner(int cell) {
+        return cells[cell] - 1;
+    }
+
+    int randomEmptyCell(SplittableRandom random) {
+        return empty[random.nextInt(emptyCount)];
+    }
+
+    // Claims the empty cell for the player to move, passes the turn on and reports whether the move won
+    boolean play(int cell) {
+        int mover = currentPlayer;
+        cells[cell] = (byte) (mover + 1);
+        int position = emptyPosition[cell];
+        int last = empty[--emptyCount];
+        empty[position] = last;
+        emptyPosition[last] = position;
+        currentPlayer = (mover + 1) % players;
+        return longestLineThrough(cell) >= threshold;
+    }
+
+    // Whether the player to move would win by claiming the empty cell
+    boolean winsWith(int cell, int player) {
+        byte saved = cells[cell];
+        cells[cell] = (byte) (player + 1);
+        boolean won = longestLineThrough(cell) >= threshold;
+        cells[cell] = saved;
+        return won;
+    }
+
+    // Plays random moves until somebody wins or the board is full, returns the winner or NO_WINNER
+    int playOut(SplittableRandom random) {
+        while (emptyCount > 0) {
+            int mover = currentPlayer;
+            if (play(randomEmptyCell(random))) {
+                return mover;
+            }
+        }
+        return NO_WINNER;
+    }
+
+    private int longestLineThrough(int cell) {
+        int row = cell / columns;
+        int col = cell % columns;
+        byte owner = cells[cell];
+        int longest = 0;
+        for (int d = 0; d < 4; d++) {
+            int length = 1;
+            int r = row - ROW_STEP[d];
+            int c = col - COL_STEP[d];
+            while (r >= 0 && c >= 0 && c < columns && cells[r * columns + c] == owner) {
+                length++;
+                r -= ROW_STEP[d];
+                c -= COL_STEP[d];
+            }
+            r = row + ROW_STEP[d];
+            c = col + COL_STEP[d];
+            while (r < rows && c >= 0 && c < columns && cells[r * columns + c] == owner) {
+                length++;
+                r += ROW_STEP[d];
+                c += COL_STEP[d];
+            }
+            longest = Math.max(longest, length);
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,137 @@
+package edu.uob;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import javax.imageio.ImageIO;
+
+// Draws boards without a screen, for thumbnails of saved games and for logs, and works with java.awt.headless=true
+// Images use the same layout as OXOView, as both are drawn by OXOBoardPainter. Text draws the board in characters:
+//
+//    1   2   3
+// a  X |   | O
+//   ---+---+---
+// b    | X |
+//   ---+---+---
+// c    |   |
+// Player O's turn
+//
+// A renderer draws every board into the same image and char buffer, so what it returns is only good until it draws
+// the next one. It is not thread safe: to draw in parallel give each thread its own renderer, e.g. with a ThreadLocal
+public final class OXORenderer {
+    // The longest message, "Stalemate - game is a draw !", fits in this with room to spare
+    private static final int MESSAGE_ROOM = 64;
+
+    private final OXOBoardPainter painter = new OXOBoardPainter();
+    private final BufferedImage image;
+    private final Graphics2D graphics;
+    private char[] text = new char[256];
+    private CharBuffer textView = CharBuffer.wrap(text).asReadOnlyBuffer();
+    private int length;
+    private int lineStart;
+
+    // Size of the images in pixels, the game window's view is 250 by 300
+    public OXORenderer(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Image size must be positive: " + width + "x" + height);
+        }
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+    }
+
+    public int getWidth() {
+        return image.getWidth();
+    }
+
+    public int getHeight() {
+        return image.getHeight();
+    }
+
+    public BufferedImage renderImage(OXOModel model) {
+        graphics.setClip(null);
+        painter.paint(graphics, model, image.getWidth(), image.getHeight());
+        return image;
+    }
+
+    public void writePng(OXOModel model, OutputStream out) throws IOException {
+        if (!ImageIO.write(renderImage(model), "png", out)) {
+            throw new IOException("No PNG writer available");
+        }
+    }
+
+    // A read only view of the reused buffer
+    public CharSequence renderText(OXOModel model) {
+        drawText(model);
+        textView.clear().limit(length);
+        return textView;
+    }
+
+    public void writeText(OXOModel model, Writer out) throws IOException {
+        drawText(model);
+        out.write(text, 0, length);
+    }
+
+    private void drawText(OXOModel model) {
+        int rows = model.getNumberOfRows();
+        int columns = model.getNumberOfColumns();
+        int capacity = (2 * rows + 1) * (4 * columns + 3) + MESSAGE_ROOM;
+        if (text.length < capacity) {
+            text = new char[Math.max(capacity, text.length * 2)];
+            textView = CharBuffer.wrap(text).asReadOnlyBuffer();
+        }
+        length = 0;
+        lineStart = 0;
+        // Column labels over the middle of each cell
+        for (int colNumber = 0; colNumber < columns; colNumber++) {
+            padTo(3 + 4 * colNumber);
+            text[length++] = (char) ('1' + colNumber);
+        }
+        endLine();
+        for (int rowNumber = 0; rowNumber < rows; rowNumber++) {
+            if (rowNumber > 0) {
+                padTo(2);
+                for (int colNumber = 0; colNumber < columns; colNumber++) {
+                    if (colNumber > 0) text[length++] = '+';
+                    text[length++] = '-';
+                    text[length++] = '-';
+                    text[length++] = '-';
+                }
+                endLine();
+            }
+            text[length++] = (char) ('a' + rowNumber);
+            for (int colNumber = 0; colNumber < columns; colNumber++) {
+                if (colNumber > 0) {
+                    padTo(1 + 4 * colNumber);
+                    text[length++] = '|';
+                }
+                OXOPlayer owner = model.getCellOwner(rowNumber, colNumber);
+                padTo(3 + 4 * colNumber);
+                text[length++] = owner == null ? ' ' : owner.getPlayingLetter();
+            }
+            endLine();
+        }
+        String message = OXOBoardPainter.text(OXOBoardPainter.messageKind(model), OXOBoardPainter.messageLetter(model));
+        message.getChars(0, message.length(), text, length);
+        length += message.length();
+        text[length++] = '\n';
+    }
+
+    // Spaces up to the column, counted from the start of the line
+    private void padTo(int column) {
+        while (length < lineStart + column) {
+            text[length++] = ' ';
+        }
+    }
+
+    // Ends the line without the spaces left at its end
+    private void endLine() {
+        while (length > lineStart && text[length - 1] == ' ') {
+            length--;
+        }
+        text[length++] = '\n';
+        lineStart = length;
+    }
+}
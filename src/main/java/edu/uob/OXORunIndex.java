@@ -0,0 +1,150 @@
+package edu.uob;
+
+import java.util.Arrays;
+
+// Lengths of the runs of same-owner cells in the four winning directions
+// Only the two end cells of a run hold its current length, which is all a new claim needs to merge its neighbours,
+// and the most recently claimed cell remembers the lengths it was merged into so the controller can check it in O(1)
+class OXORunIndex {
+    private static final int MIN_STRIDE = 9;
+    // Horizontal, vertical, top-left to bottom-right and bottom-left to top-right
+    private static final int[] ROW_STEP = { 0, 1, 1, 1 };
+    private static final int[] COL_STEP = { 1, 0, 1, -1 };
+
+    private final OXOCellStore cells;
+    private final int stride;
+    private int[][] runs;
+    private int lastRow = -1;
+    private int lastCol = -1;
+    private int lastLongestRun;
+
+    OXORunIndex(OXOCellStore store) {
+        this(store, Math.max(MIN_STRIDE, store.getNumberOfColumns()));
+    }
+
+    private OXORunIndex(OXOCellStore store, int stride) {
+        cells = store;
+        this.stride = stride;
+        runs = new int[4][stride * Math.max(MIN_STRIDE, store.getNumberOfRows())];
+    }
+
+    OXORunIndex copy(OXOCellStore store) {
+        OXORunIndex copy = new OXORunIndex(store, stride);
+        for (int d = 0; d < 4; d++) {
+            copy.runs[d] = runs[d].clone();
+        }
+        copy.lastRow = lastRow;
+        copy.lastCol = lastCol;
+        copy.lastLongestRun = lastLongestRun;
+        return copy;
+    }
+
+    // Must be called after the store has been changed, previous is the owner the cell had before
+    void cellChanged(int row, int col, OXOPlayer previous, OXOPlayer player) {
+        if (previous == player) {
+            return;
+        }
+        if (previous != null) {
+            split(row, col, previous);
+        }
+        if (player != null) {
+            merge(row, col, player);
+        } else {
+            forgetLastClaim();
+        }
+    }
+
+    void rowAdded() {
+        int needed = stride * cells.getNumberOfRows();
+        if (needed > runs[0].length) {
+            for (int d = 0; d < 4; d++) {
+                runs[d] = Arrays.copyOf(runs[d], Math.max(needed, runs[d].length * 2));
+            }
+        }
+    }
+
+    void cleared() {
+        forgetLastClaim();
+    }
+
+    // Longest run through the cell if it was the last one claimed, otherwise -1 as the answer isn't known in O(1)
+    int longestRunThroughLastClaim(int row, int col) {
+        return row == lastRow && col == lastCol ? lastLongestRun : -1;
+    }
+
+    // Longest line the player would have through the empty cell if they claimed it, without changing anything
+    int longestRunIfClaimed(int row, int col, OXOPlayer player) {
+        int longest = 0;
+        for (int d = 0; d < 4; d++) {
+            int before = runEndingAt(row - ROW_STEP[d], col - COL_STEP[d], d, player);
+            int after = runEndingAt(row + ROW_STEP[d], col + COL_STEP[d], d, player);
+            longest = Math.max(longest, before + 1 + after);
+        }
+        return longest;
+    }
+
+    private void merge(int row, int col, OXOPlayer player) {
+        int longest = 0;
+        for (int d = 0; d < 4; d++) {
+            int before = runEndingAt(row - ROW_STEP[d], col - COL_STEP[d], d, player);
+            int after = runEndingAt(row + ROW_STEP[d], col + COL_STEP[d], d, player);
+            int length = before + 1 + after;
+            runs[d][slot(row - before * ROW_STEP[d], col - before * COL_STEP[d])] = length;
+            runs[d][slot(row + after * ROW_STEP[d], col + after * COL_STEP[d])] = length;
+            runs[d][slot(row, col)] = length;
+            longest = Math.max(longest, length);
+        }
+        lastRow = row;
+        lastCol = col;
+        lastLongestRun = longest;
+    }
+
+    // Taking a cell out of a run has to find the new ends, so this walks the cells on both sides
+    private void split(int row, int col, OXOPlayer previous) {
+        forgetLastClaim();
+        for (int d = 0; d < 4; d++) {
+            int before = walk(row, col, -ROW_STEP[d], -COL_STEP[d], previous);
+            int after = walk(row, col, ROW_STEP[d], COL_STEP[d], previous);
+            if (before > 0) {
+                runs[d][slot(row - ROW_STEP[d], col - COL_STEP[d])] = before;
+                runs[d][slot(row - before * ROW_STEP[d], col - before * COL_STEP[d])] = before;
+            }
+            if (after > 0) {
+                runs[d][slot(row + ROW_STEP[d], col + COL_STEP[d])] = after;
+                runs[d][slot(row + after * ROW_STEP[d], col + after * COL_STEP[d])] = after;
+            }
+        }
+    }
+
+    private int runEndingAt(int row, int col, int direction, OXOPlayer player) {
+        if (!inside(row, col) || cells.get(row, col) != player) {
+            return 0;
+        }
+        return runs[direction][slot(row, col)];
+    }
+
+    private int walk(int row, int col, int rowStep, int colStep, OXOPlayer player) {
+        int count = 0;
+        int r = row + rowStep;
+        int c = col + colStep;
+        while (inside(r, c) && cells.get(r, c) == player) {
+            count++;
+            r += rowStep;
+            c += colStep;
+        }
+        return count;
+    }
+
+    private boolean inside(int row, int col) {
+        return row >= 0 && col >= 0 && row < cells.getNumberOfRows() && col < cells.getNumberOfColumns();
+    }
+
+    private int slot(int row, int col) {
+        return row * stride + col;
+    }
+
+    private void forgetLastClaim() {
+        lastRow = -1;
+        lastCol = -1;
+    }
+}
@@ -0,0 +1,609 @@
+package edu.uob;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Plays games over a plain text protocol on localhost, for bots and load generators that don't want the GUI
+// Every command is one line and gets one line back:
+//   create [rows columns threshold players]   ok <game>            new game (3 3 3 2 if not given), and joins it
+//   join <game>                                ok <game>
+//   move <cell>                                ok                   or error, the OXOMoveResult and the OXOMoveException
+//                                                                   message, e.g. error CELL_ALREADY_TAKEN Cell [1,1] has...
+//   resize <rows> <columns>                    ok <rows> <columns>  as close as the controller allows
+//   threshold <threshold>                      ok <threshold>       as close as the controller allows, at most the
+//                                                                   board's longer side
+//   addRow, removeRow, addColumn, removeColumn ok <rows> <columns>  one step, as the controller methods
+//   increaseWinThreshold, decreaseWinThreshold ok <threshold>
+//   undo, redo, reset                          ok
+//   state                                      state <rows> <columns> <threshold> <playing|won|drawn> <player> <cells>
+//   quit                                       ok                   and the connection is closed
+// In state the player is the one to move, or the winner ('-' after a draw), and the cells go row by row with '.' for
+// empty ones. Anything that goes wrong is answered with "error" and a reason. Command words ignore case
+// Commands can be pipelined: every complete line that has arrived is run in order, with the game's lock taken once
+// for all of them, and their replies go back in one write
+// Connections are shared out between a few threads, each with its own selector and pool of direct buffers, and games
+// are OXOSessions, so connections on different threads can join the same game
+public class OXOServer implements AutoCloseable {
+    static final int DEFAULT_PORT = 4000;
+    // Longest line that can be read, and room for far more than the longest reply
+    static final int BUFFER_SIZE = 4096;
+    private static final int MAX_POOLED_BUFFERS = 256;
+    private static final long MAX_NUMBER = 1_000_000_000_000L;
+    private static final String[] GAME_COMMANDS = { "move", "resize", "threshold", "addRow", "removeRow", "addColumn",
+        "removeColumn", "increaseWinThreshold", "decreaseWinThreshold", "undo", "redo", "reset", "state" };
+    // Room left in the output buffer before another command is run, more than the longest reply needs
+    private static final int MAX_REPLY = 256;
+
+    private final OXOSessionManager sessions;
+    private final ServerSocketChannel serverChannel;
+    private final Loop[] loops;
+    private final Thread[] threads;
+    private volatile boolean running = true;
+
+    // Port 0 picks any free port, see getPort
+    public OXOServer(OXOSessionManager sessions, int port, int numberOfThreads) throws IOException {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("The server needs at least one thread");
+        }
+        this.sessions = sessions;
+        serverChannel = ServerSocketChannel.open();
+        loops = new Loop[numberOfThreads];
+        threads = new Thread[numberOfThreads];
+        try {
+            serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            serverChannel.configureBlocking(false);
+            for (int i = 0; i < numberOfThreads; i++) {
+                loops[i] = new Loop();
+                threads[i] = new Thread(loops[i], "oxo-server-" + i);
+            }
+            // The first thread accepts connections as well as serving its share of them
+            serverChannel.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException | RuntimeException exception) {
+            close();
+            throw exception;
+        }
+    }
+
+    public void start() {
+        for (Thread thread : threads) {
+            thread.start();
+        }
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    // Stops every thread and closes every connection
+    public void close() {
+        running = false;
+        for (Loop loop : loops) {
+            if (loop != null) loop.selector.wakeup();
+        }
+        for (Thread thread : threads) {
+            if (thread == null || !thread.isAlive()) continue;
+            try {
+                thread.join();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        // Threads that never started or have stopped leave their connections for this thread to close
+        for (int i = 0; i < loops.length; i++) {
+            if (loops[i] != null && (threads[i] == null || !threads[i].isAlive())) loops[i].closeAll();
+        }
+        try {
+            serverChannel.close();
+        } catch (IOException exception) {
+            // Nothing more can be done with it
+        }
+    }
+
+    // One thread: a selector and the connections registered with it
+    private final class Loop implements Runnable {
+        final Selector selector;
+        final OXOBufferPool pool = new OXOBufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+        // Connections accepted by the first thread for this one to register
+        final ConcurrentLinkedQueue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+        private int nextLoop;
+
+        Loop() throws IOException {
+            selector = Selector.open();
+        }
+
+        public void run() {
+            try {
+                while (running) {
+                    selector.select(this::handle);
+                    for (SocketChannel channel = accepted.poll(); channel != null; channel = accepted.poll()) {
+                        register(channel);
+                    }
+                }
+            } catch (IOException exception) {
+                System.err.println("OXO server thread stopped: " + exception);
+            } finally {
+                closeAll();
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            if (key.isAcceptable()) {
+                accept();
+                return;
+            }
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isWritable() && connection.flush()) {
+                    connection.processLines();
+                }
+                if (key.isValid() && key.isReadable()) {
+                    connection.read();
+                }
+            } catch (IOException exception) {
+                connection.close();
+            } catch (RuntimeException exception) {
+                // A bug met by one connection only costs that connection, not every other one on this thread
+                System.err.println("OXO server closed a connection after an error: " + exception);
+                connection.close();
+            }
+        }
+
+        private void accept() {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                if (channel == null) {
+                    return;
+                }
+                Loop loop = loops[nextLoop];
+                nextLoop = (nextLoop + 1) % loops.length;
+                if (loop == this) {
+                    register(channel);
+                } else {
+                    loop.accepted.add(channel);
+                    loop.selector.wakeup();
+                }
+            } catch (IOException exception) {
+                System.err.println("OXO server could not accept a connection: " + exception);
+            }
+        }
+
+        private void register(SocketChannel channel) {
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new Connection(this, channel, key));
+            } catch (IOException exception) {
+                closeQuietly(channel);
+            }
+        }
+
+        // Only called by this loop's thread, or once it has stopped
+        synchronized void closeAll() {
+            if (!selector.isOpen()) {
+                return;
+            }
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection connection) connection.close();
+            }
+            for (SocketChannel channel = accepted.poll(); channel != null; channel = accepted.poll()) {
+                closeQuietly(channel);
+            }
+            try {
+                selector.close();
+            } catch (IOException exception) {
+                // Nothing more can be done with it
+            }
+        }
+    }
+
+    // A client and the game it has joined. The input buffer holds what has been read and not yet handled, and the
+    // output buffer the replies not yet written. Both stay in write mode between calls
+    private final class Connection {
+        private final Loop loop;
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private ByteBuffer in;
+        private ByteBuffer out;
+        private OXOSession session;
+        // The session whose lock is held while a run of commands is handled
+        private OXOSession locked;
+        private boolean quitting;
+        // Where the argument being read has got to in the line
+        private int cursor;
+
+        Connection(Loop loop, SocketChannel channel, SelectionKey key) {
+            this.loop = loop;
+            this.channel = channel;
+            this.key = key;
+            in = loop.pool.acquire();
+            out = loop.pool.acquire();
+        }
+
+        void read() throws IOException {
+            if (channel.read(in) < 0) {
+                close();
+                return;
+            }
+            processLines();
+        }
+
+        // Handles the complete lines that have arrived and writes their replies, stopping while replies are waiting
+        // to be written. Lines are taken as many at a time as the output buffer has room for the replies of
+        void processLines() throws IOException {
+            while (in != null && out.position() == 0) {
+                if (handleLines() == 0) {
+                    if (!in.hasRemaining()) {
+                        reply("error line too long\n");
+                        quitting = true;
+                        flush();
+                    }
+                    return;
+                }
+                if (!flush()) {
+                    return;
+                }
+            }
+        }
+
+        // Runs complete lines in order and drops them from the input, returns how many bytes of input they took
+        private int handleLines() {
+            int start = 0;
+            try {
+                for (int newline = indexOf('\n', start); newline >= 0 && !quitting && out.remaining() >= MAX_REPLY;
+                        newline = indexOf('\n', start)) {
+                    int end = newline > start && in.get(newline - 1) == '\r' ? newline - 1 : newline;
+                    handleLine(start, end);
+                    out.put((byte) '\n');
+                    start = newline + 1;
+                }
+            } finally {
+                unlockSession();
+            }
+            if (start > 0) {
+                in.flip().position(start);
+                in.compact();
+            }
+            return start;
+        }
+
+        // Takes the lock of the joined game unless it is held already, and counts the game as used. False, with the
+        // game let go of, if it has expired or been removed since it was joined
+        private boolean lockSession() {
+            if (locked != session) {
+                unlockSession();
+                session.lock();
+                locked = session;
+                if (!sessions.touch(session)) {
+                    unlockSession();
+                    session = null;
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void unlockSession() {
+            if (locked != null) {
+                locked.unlock();
+                locked = null;
+            }
+        }
+
+        // Writes out what it can, true once everything has gone and the connection is still open
+        boolean flush() throws IOException {
+            out.flip();
+            channel.write(out);
+            if (out.hasRemaining()) {
+                out.compact();
+                key.interestOps(SelectionKey.OP_WRITE);
+                return false;
+            }
+            out.clear();
+            if (quitting) {
+                close();
+                return false;
+            }
+            key.interestOps(SelectionKey.OP_READ);
+            return true;
+        }
+
+        void close() {
+            if (in == null) {
+                return;
+            }
+            key.cancel();
+            closeQuietly(channel);
+            loop.pool.release(in);
+            loop.pool.release(out);
+            in = null;
+            out = null;
+        }
+
+        private int indexOf(char c, int from) {
+            for (int i = from; i < in.position(); i++) {
+                if (in.get(i) == c) return i;
+            }
+            return -1;
+        }
+
+        private void handleLine(int start, int end) {
+            while (start < end && in.get(start) == ' ') start++;
+            while (end > start && in.get(end - 1) == ' ') end--;
+            int wordEnd = start;
+            while (wordEnd < end && in.get(wordEnd) != ' ') wordEnd++;
+            cursor = wordEnd;
+            skipSpaces(end);
+            if (isWord(start, wordEnd, "create")) {
+                create(end);
+            } else if (isWord(start, wordEnd, "join")) {
+                join(end);
+            } else if (isWord(start, wordEnd, "quit")) {
+                quitting = true;
+                reply("ok");
+            } else if (wordEnd == start) {
+                reply("error empty command");
+            } else if (!isGameCommand(start, wordEnd)) {
+                reply("error unknown command");
+            } else if (session == null) {
+                reply("error no game, create or join one first");
+            } else if (!lockSession()) {
+                reply("error no such game");
+            } else {
+                handleGameCommand(start, wordEnd, end);
+            }
+        }
+
+        private boolean isGameCommand(int start, int end) {
+            for (String command : GAME_COMMANDS) {
+                if (isWord(start, end, command)) return true;
+            }
+            return false;
+        }
+
+        // Commands played on the joined game, with its lock held
+        private void handleGameCommand(int start, int wordEnd, int end) {
+            OXOController controller = session.getController();
+            OXOModel model = session.getModel();
+            if (isWord(start, wordEnd, "move")) {
+                move(controller, end);
+            } else if (isWord(start, wordEnd, "resize")) {
+                long rows = nextNumber(end);
+                long columns = nextNumber(end);
+                if (rows < 1 || columns < 1 || cursor != end) {
+                    reply("error usage: resize <rows> <columns>");
+                    return;
+                }
+                resize(controller, model, (int) rows, (int) columns);
+                replyDimensions(model);
+            } else if (isWord(start, wordEnd, "threshold")) {
+                long threshold = nextNumber(end);
+                if (threshold < 1 || threshold > Math.max(model.getNumberOfRows(), model.getNumberOfColumns()) || cursor != end) {
+                    reply("error usage: threshold <threshold>, at most the board's longer side");
+                    return;
+                }
+                controller.changeWinThreshold((int) threshold);
+                reply("ok ");
+                putNumber(model.getWinThreshold());
+            } else if (cursor != end) {
+                reply("error unexpected arguments");
+            } else {
+                handleSingleStep(controller, model, start, wordEnd);
+            }
+        }
+
+        // Commands without arguments
+        private void handleSingleStep(OXOController controller, OXOModel model, int start, int wordEnd) {
+            if (isWord(start, wordEnd, "addRow") || isWord(start, wordEnd, "removeRow")
+                    || isWord(start, wordEnd, "addColumn") || isWord(start, wordEnd, "removeColumn")) {
+                if (isWord(start, wordEnd, "addRow")) controller.addRow();
+                else if (isWord(start, wordEnd, "removeRow")) controller.removeRow();
+                else if (isWord(start, wordEnd, "addColumn")) controller.addColumn();
+                else controller.removeColumn();
+                replyDimensions(model);
+            } else if (isWord(start, wordEnd, "increaseWinThreshold") || isWord(start, wordEnd, "decreaseWinThreshold")) {
+                if (isWord(start, wordEnd, "increaseWinThreshold")) controller.increaseWinThreshold();
+                else controller.decreaseWinThreshold();
+                reply("ok ");
+                putNumber(model.getWinThreshold());
+            } else if (isWord(start, wordEnd, "undo")) {
+                reply(controller.undo() ? "ok" : "error nothing to undo");
+            } else if (isWord(start, wordEnd, "redo")) {
+                reply(controller.redo() ? "ok" : "error nothing to redo");
+            } else if (isWord(start, wordEnd, "reset")) {
+                controller.reset();
+                reply("ok");
+            } else {
+                state(model);
+            }
+        }
+
+        private void create(int end) {
+            long rows = 3;
+            long columns = 3;
+            long threshold = 3;
+            long players = 2;
+            if (cursor < end) {
+                rows = nextNumber(end);
+                columns = nextNumber(end);
+                threshold = nextNumber(end);
+                players = nextNumber(end);
+            }
+            if (rows < 1 || rows > 9 || columns < 1 || columns > 9 || threshold < 1 || players < 1 || cursor != end) {
+                reply("error usage: create [rows columns threshold players], with at most 9 rows and columns");
+                return;
+            }
+            try {
+                session = sessions.create((int) rows, (int) columns, (int) threshold, (int) players);
+            } catch (IllegalArgumentException exception) {
+                reply("error " + exception.getMessage());
+                return;
+            }
+            reply("ok ");
+            putNumber(session.getId());
+        }
+
+        private void join(int end) {
+            long id = nextNumber(end);
+            if (id < 0 || cursor != end) {
+                reply("error usage: join <game>");
+                return;
+            }
+            OXOSession found = sessions.get(id);
+            if (found == null) {
+                reply("error no such game");
+                return;
+            }
+            session = found;
+            reply("ok ");
+            putNumber(id);
+        }
+
+        // The identifier is handed over in place, by narrowing the input buffer to it for the moment
+        private void move(OXOController controller, int end) {
+            if (cursor == end) {
+                reply("error usage: move <cell>");
+                return;
+            }
+            int position = in.position();
+            int limit = in.limit();
+            in.limit(end).position(cursor);
+            OXOMoveResult result;
+            try {
+                result = controller.tryIncomingCommand(in);
+            } finally {
+                in.limit(limit).position(position);
+            }
+            if (result.isAccepted()) {
+                reply("ok");
+                return;
+            }
+            reply("error ");
+            reply(result.name());
+            OXOMoveException exception = controller.rejection(result);
+            if (exception != null) {
+                reply(" ");
+                reply(exception.getMessage());
+            }
+        }
+
+        private void replyDimensions(OXOModel model) {
+            reply("ok ");
+            putNumber(model.getNumberOfRows());
+            out.put((byte) ' ');
+            putNumber(model.getNumberOfColumns());
+        }
+
+        // One row or column at a time, stopping when the controller won't go any further
+        private void resize(OXOController controller, OXOModel model, int rows, int columns) {
+            while (model.getNumberOfRows() < rows) {
+                int before = model.getNumberOfRows();
+                controller.addRow();
+                if (model.getNumberOfRows() == before) break;
+            }
+            while (model.getNumberOfRows() > rows && !model.isRowOccupied(model.getNumberOfRows() - 1)) {
+                controller.removeRow();
+            }
+            while (model.getNumberOfColumns() < columns) {
+                int before = model.getNumberOfColumns();
+                controller.addColumn();
+                if (model.getNumberOfColumns() == before) break;
+            }
+            while (model.getNumberOfColumns() > columns && !model.isColumnOccupied(model.getNumberOfColumns() - 1)) {
+                controller.removeColumn();
+            }
+        }
+
+        private void state(OXOModel model) {
+            reply("state ");
+            putNumber(model.getNumberOfRows());
+            out.put((byte) ' ');
+            putNumber(model.getNumberOfColumns());
+            out.put((byte) ' ');
+            putNumber(model.getWinThreshold());
+            if (model.getWinner() != null) {
+                reply(" won ");
+                out.put((byte) model.getWinner().getPlayingLetter());
+            } else if (model.isGameDrawn()) {
+                reply(" drawn -");
+            } else {
+                reply(" playing ");
+                out.put((byte) model.getPlayerByNumber(model.getCurrentPlayerNumber()).getPlayingLetter());
+            }
+            out.put((byte) ' ');
+            for (int row = 0; row < model.getNumberOfRows(); row++) {
+                for (int col = 0; col < model.getNumberOfColumns(); col++) {
+                    OXOPlayer owner = model.getCellOwner(row, col);
+                    out.put((byte) (owner == null ? '.' : owner.getPlayingLetter()));
+                }
+            }
+        }
+
+        // Starts or carries on the reply, processLines ends it with a newline once the line has been handled
+        private void reply(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                out.put((byte) text.charAt(i));
+            }
+        }
+
+        private void putNumber(long value) {
+            if (value >= 10) {
+                putNumber(value / 10);
+            }
+            out.put((byte) ('0' + value % 10));
+        }
+
+        // A number and the spaces after it, -1 if there isn't one at the cursor
+        private long nextNumber(int end) {
+            long value = -1;
+            while (cursor < end && in.get(cursor) >= '0' && in.get(cursor) <= '9' && value < MAX_NUMBER) {
+                value = Math.max(value, 0) * 10 + in.get(cursor++) - '0';
+            }
+            if (cursor < end && in.get(cursor) != ' ') {
+                return -1;
+            }
+            skipSpaces(end);
+            return value;
+        }
+
+        private void skipSpaces(int end) {
+            while (cursor < end && in.get(cursor) == ' ') cursor++;
+        }
+
+        private boolean isWord(int start, int end, String word) {
+            if (end - start != word.length()) {
+                return false;
+            }
+            for (int i = 0; i < word.length(); i++) {
+                if (Character.toLowerCase((char) in.get(start + i)) != Character.toLowerCase(word.charAt(i))) return false;
+            }
+            return true;
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException exception) {
+            // Nothing more can be done with it
+        }
+    }
+
+    // Usage: OXOServer [port] [threads]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        OXOServer server = new OXOServer(new OXOSessionManager(), port, threads);
+        server.start();
+        System.out.println("OXO server listening on localhost:" + server.getPort());
+    }
+}
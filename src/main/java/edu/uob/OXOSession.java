@@ -0,0 +1,109 @@
+package edu.uob;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// One hosted game: a model and its controller behind a lock of their own, so games in different sessions never wait
+// for each other. The move methods take the lock themselves, anything else done with getController or getModel has
+// to happen between lock() and unlock()
+public class OXOSession {
+    // Last used time once the session has expired, so it can't be handed out again
+    private static final long EXPIRED = Long.MIN_VALUE;
+
+    private final long id;
+    private final OXOModel model;
+    private final OXOController controller;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Changed with compareAndSet, so a session is either taken by a lookup or expired, never both
+    private final AtomicLong lastUsedNanos;
+
+    OXOSession(long id, OXOModel model, long now) {
+        this.id = id;
+        this.model = model;
+        controller = new OXOController(model);
+        lastUsedNanos = new AtomicLong(now);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public OXOModel getModel() {
+        return model;
+    }
+
+    public OXOController getController() {
+        return controller;
+    }
+
+    public void lock() {
+        lock.lock();
+    }
+
+    public void unlock() {
+        lock.unlock();
+    }
+
+    // Fails while anybody holds the lock, including the thread asking
+    boolean tryLock() {
+        return !lock.isHeldByCurrentThread() && lock.tryLock();
+    }
+
+    public OXOMoveResult tryMove(CharSequence command) {
+        lock.lock();
+        try {
+            return controller.tryIncomingCommand(command);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ASCII identifier between the buffer's position and limit, as OXOController.tryIncomingCommand(ByteBuffer)
+    public OXOMoveResult tryMove(ByteBuffer command) {
+        lock.lock();
+        try {
+            return controller.tryIncomingCommand(command);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public OXOMoveResult tryMove(int row, int col) {
+        lock.lock();
+        try {
+            return controller.tryIncomingCommand(row, col);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getLastUsedNanos() {
+        return lastUsedNanos.get();
+    }
+
+    boolean isExpired() {
+        return lastUsedNanos.get() == EXPIRED;
+    }
+
+    // Marks the session as used, false if it has already expired
+    boolean touch(long now) {
+        for (long last = lastUsedNanos.get(); last != EXPIRED; last = lastUsedNanos.get()) {
+            if (lastUsedNanos.compareAndSet(last, now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Expires the session however recently it was used, as when it is removed
+    void expire() {
+        lastUsedNanos.set(EXPIRED);
+    }
+
+    // Expires the session if it hasn't been used since the cutoff, false if it has been or is expired already
+    boolean expire(long cutoff) {
+        long last = lastUsedNanos.get();
+        return last != EXPIRED && last - cutoff <= 0 && lastUsedNanos.compareAndSet(last, EXPIRED);
+    }
+}
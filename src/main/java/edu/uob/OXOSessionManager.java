@@ -0,0 +1,100 @@
+package edu.uob;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Hosts many games at once, each in an OXOSession found by its id
+// The sessions live in an OXOSessionTable keyed by the primitive id, so finding one neither allocates nor waits unless
+// a session in the same segment of the table is being added or removed at that moment, and each session has its own lock for its moves
+public class OXOSessionManager {
+    private static final String PLAYER_LETTERS = "XOABCDEFGHIJKLMNPQRSTUVWYZ";
+
+    private final OXOSessionTable sessions = new OXOSessionTable();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final LongSupplier clock;
+
+    public OXOSessionManager() {
+        this(System::nanoTime);
+    }
+
+    // The clock gives the time in nanoseconds, as System.nanoTime does
+    OXOSessionManager(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    // New game with players named 'X', 'O', then 'A', 'B' and so on through the alphabet
+    public OXOSession create(int rows, int columns, int winThreshold, int players) {
+        OXOModel model = new OXOModel(rows, columns, winThreshold);
+        for (int p = 0; p < players; p++) {
+            model.addPlayer(new OXOPlayer(playerLetter(p)));
+        }
+        return create(model);
+    }
+
+    public OXOSession create(OXOModel model) {
+        OXOSession session = new OXOSession(nextId.getAndIncrement(), model, clock.getAsLong());
+        sessions.put(session);
+        return session;
+    }
+
+    // The session, or null if there is none with that id. Finding a session counts as using it, and one that is found
+    // can't expire until it has been left idle again, even if expireIdleSessions is running at the same moment
+    public OXOSession get(long id) {
+        OXOSession session = sessions.get(id);
+        if (session == null || !session.touch(clock.getAsLong())) {
+            return null;
+        }
+        return session;
+    }
+
+    // Counts as using the session without looking it up, for callers that already hold it. False once the session
+    // has expired or been removed, and then it is no longer hosted and the caller should let go of it
+    boolean touch(OXOSession session) {
+        return session.touch(clock.getAsLong());
+    }
+
+    // Callers still holding the session find it expired the next time they touch it
+    public boolean remove(long id) {
+        OXOSession removed = sessions.remove(id, null);
+        if (removed == null) {
+            return false;
+        }
+        removed.expire();
+        return true;
+    }
+
+    public int getNumberOfSessions() {
+        return sessions.size();
+    }
+
+    // Removes every session not used for the given time, except those somebody holds the lock of right now
+    // Returns how many were removed
+    public int expireIdleSessions(long idleTime, TimeUnit unit) {
+        long cutoff = clock.getAsLong() - unit.toNanos(idleTime);
+        int expired = 0;
+        for (OXOSession session : sessions.values()) {
+            if ((!session.isExpired() && session.getLastUsedNanos() - cutoff > 0) || !session.tryLock()) {
+                continue;
+            }
+            try {
+                // Checked again now that nobody can be moving in it. Expiring is a compareAndSet against get's touch,
+                // so a session that get has just handed out is never removed. Sessions another call has expired but
+                // not yet removed are removed too
+                if ((session.isExpired() || session.expire(cutoff)) && sessions.remove(session.getId(), session) != null) {
+                    expired++;
+                }
+            } finally {
+                session.unlock();
+            }
+        }
+        return expired;
+    }
+
+    static char playerLetter(int playerNumber) {
+        if (playerNumber >= PLAYER_LETTERS.length()) {
+            throw new IllegalArgumentException("At most " + PLAYER_LETTERS.length() + " players are supported");
+        }
+        return PLAYER_LETTERS.charAt(playerNumber);
+    }
+}
@@ -0,0 +1,210 @@
+package edu.uob;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+// Sessions by id, split by the id's hash into segments that each have their own lock and arrays, so adding, removing
+// or growing in one segment never holds up lookups in the others
+// Each segment is an open addressing table with linear probing keyed by the primitive id, so finding one boxes nothing
+// Lookups first run under an optimistic read of the segment's StampedLock and only take the read lock if a write to
+// that segment got in the way, so they neither allocate nor wait while nobody is adding or removing there
+// Ids start at 1, 0 marks a free slot
+final class OXOSessionTable {
+    private static final long FREE = 0;
+    private static final int SEGMENTS = 16;
+    private static final int SEGMENT_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(SEGMENTS);
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    OXOSessionTable() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    OXOSession get(long id) {
+        long hash = hash(id);
+        return segmentFor(hash).get(id, hash);
+    }
+
+    void put(OXOSession session) {
+        long hash = hash(session.getId());
+        segmentFor(hash).put(session, hash);
+    }
+
+    // Removes the session under the id, or only if it is that session when one is given
+    OXOSession remove(long id, OXOSession expected) {
+        long hash = hash(id);
+        return segmentFor(hash).remove(id, hash, expected);
+    }
+
+    // Each segment is counted under its own lock, so with others adding and removing this is only ever an estimate
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    // Copy of the sessions, for going through them while others are added and removed
+    List<OXOSession> values() {
+        List<OXOSession> values = new ArrayList<>();
+        for (Segment segment : segments) {
+            segment.addTo(values);
+        }
+        return values;
+    }
+
+    // The segment comes from the top bits of the hash, and the slot within it from the rest
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> SEGMENT_SHIFT)];
+    }
+
+    private static long hash(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    private static int slot(long hash, int mask) {
+        return (int) hash & mask;
+    }
+
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        // Replaced together under the write lock when the segment grows, never more than half full
+        private long[] ids = new long[16];
+        private OXOSession[] sessions = new OXOSession[16];
+        private int size;
+
+        OXOSession get(long id, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                OXOSession found = find(ids, sessions, id, hash);
+                if (lock.validate(stamp)) {
+                    return found;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return find(ids, sessions, id, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // Safe on arrays that are being changed, as under an optimistic read: it stays in bounds and always stops, and
+        // whatever it returns then is thrown away
+        private static OXOSession find(long[] keys, OXOSession[] values, long id, long hash) {
+            int mask = keys.length - 1;
+            int slot = slot(hash, mask);
+            for (int probes = 0; probes < keys.length; probes++) {
+                long key = keys[slot];
+                if (key == id) {
+                    return slot < values.length ? values[slot] : null;
+                }
+                if (key == FREE) {
+                    return null;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        void put(OXOSession session, long hash) {
+            long stamp = lock.writeLock();
+            try {
+                if ((size + 1) * 2 > ids.length) {
+                    grow();
+                }
+                int mask = ids.length - 1;
+                int slot = slot(hash, mask);
+                while (ids[slot] != FREE && ids[slot] != session.getId()) {
+                    slot = (slot + 1) & mask;
+                }
+                if (ids[slot] == FREE) {
+                    size++;
+                }
+                ids[slot] = session.getId();
+                sessions[slot] = session;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        OXOSession remove(long id, long hash, OXOSession expected) {
+            long stamp = lock.writeLock();
+            try {
+                int mask = ids.length - 1;
+                int slot = slot(hash, mask);
+                while (ids[slot] != id) {
+                    if (ids[slot] == FREE) {
+                        return null;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                OXOSession removed = sessions[slot];
+                if (expected != null && removed != expected) {
+                    return null;
+                }
+                // Moves later entries of the run back into the gap, so no lookup stops early at it
+                int gap = slot;
+                for (int next = (gap + 1) & mask; ids[next] != FREE; next = (next + 1) & mask) {
+                    int home = slot(hash(ids[next]), mask);
+                    // Only entries whose home is not between the gap and them can fill the gap
+                    if (((next - home) & mask) >= ((next - gap) & mask)) {
+                        ids[gap] = ids[next];
+                        sessions[gap] = sessions[next];
+                        gap = next;
+                    }
+                }
+                ids[gap] = FREE;
+                sessions[gap] = null;
+                size--;
+                return removed;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void addTo(List<OXOSession> values) {
+            long stamp = lock.readLock();
+            try {
+                for (OXOSession session : sessions) {
+                    if (session != null) values.add(session);
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private void grow() {
+            long[] oldIds = ids;
+            OXOSession[] oldSessions = sessions;
+            long[] newIds = new long[oldIds.length * 2];
+            OXOSession[] newSessions = new OXOSession[oldIds.length * 2];
+            int mask = newIds.length - 1;
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldIds[i] == FREE) continue;
+                int slot = slot(hash(oldIds[i]), mask);
+                while (newIds[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                newIds[slot] = oldIds[i];
+                newSessions[slot] = oldSessions[i];
+            }
+            ids = newIds;
+            sessions = newSessions;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package edu.uob;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Headless driver that plays large batches of games across all cores and gathers statistics about them
+// Games start from an optional scripted opening, played through OXOController so it is checked like any other input,
+// and are then finished with uniformly random moves on an OXOPlayoutBoard, which follows the same rules as checkWin
+// Each thread counts into its own Stats and the counts are only added together once every thread has finished
+public class OXOSimulator {
+    private final ForkJoinPool pool;
+    private final SplittableRandom seeds;
+
+    public static class Stats {
+        private final long[] wins;
+        private long games;
+        private long draws;
+        private long moves;
+        private long nanos;
+
+        Stats(int players) {
+            wins = new long[players];
+        }
+
+        void add(Stats other) {
+            for (int p = 0; p < wins.length; p++) wins[p] += other.wins[p];
+            games += other.games;
+            draws += other.draws;
+            moves += other.moves;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        // Games won by the player with this number, player 0 moves first
+        public long getWins(int playerNumber) {
+            return wins[playerNumber];
+        }
+
+        public double getWinRate(int playerNumber) {
+            return games == 0 ? 0 : (double) wins[playerNumber] / games;
+        }
+
+        public long getDraws() {
+            return draws;
+        }
+
+        public double getDrawRate() {
+            return games == 0 ? 0 : (double) draws / games;
+        }
+
+        // Moves made after the opening, over all games
+        public long getTotalMoves() {
+            return moves;
+        }
+
+        public double getAverageLength() {
+            return games == 0 ? 0 : (double) moves / games;
+        }
+
+        public long getElapsedNanos() {
+            return nanos;
+        }
+
+        public double getGamesPerSecond() {
+            return nanos == 0 ? 0 : games * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append(String.format("%d games in %.2fs (%.0f games/s)%n", games, nanos / 1e9, getGamesPerSecond()));
+            for (int p = 0; p < wins.length; p++) {
+                builder.append(String.format("player %d wins %.4f%n", p + 1, getWinRate(p)));
+            }
+            builder.append(String.format("draws %.4f%naverage length %.2f moves", getDrawRate(), getAverageLength()));
+            return builder.toString();
+        }
+    }
+
+    public OXOSimulator() {
+        this(ForkJoinPool.commonPool(), new SplittableRandom());
+    }
+
+    // Games are shared out between all of the pool's threads, a fixed seed repeats the same games on the same pool
+    public OXOSimulator(ForkJoinPool pool, SplittableRandom seeds) {
+        this.pool = pool;
+        this.seeds = seeds;
+    }
+
+    // Plays the opening (cell identifiers, in turn) and then finishes the requested number of games at random
+    public Stats simulate(int rows, int columns, int threshold, int players, long games, String... opening) throws OXOMoveException {
+        boolean large = rows > 9 || columns > 9;
+        OXOModel model = new OXOModel(rows, columns, threshold, large ? OXOModel.Storage.SPARSE : OXOModel.Storage.BITBOARD);
+        for (int p = 0; p < players; p++) {
+            model.addPlayer(new OXOPlayer((char) ('A' + p)));
+        }
+        OXOController controller = new OXOController(model);
+        for (String move : opening) {
+            if (model.getWinner() != null || model.isBoardFull()) {
+                throw new IllegalArgumentException("The game is already over before " + move);
+            }
+            controller.handleIncomingCommand(move);
+        }
+        return simulate(model, games);
+    }
+
+    // Finishes the model's position the requested number of times without changing the model
+    public Stats simulate(OXOModel model, long games) {
+        if (model.getWinner() != null || model.isBoardFull()) {
+            throw new IllegalArgumentException("The game is already over");
+        }
+        OXOPlayoutBoard start = OXOPlayoutBoard.fromModel(model, (int) Math.min(Integer.MAX_VALUE, (long) model.getNumberOfRows() * model.getNumberOfColumns()));
+        int threads = (int) Math.max(1, Math.min(pool.getParallelism(), games));
+        List<Worker> workers = new ArrayList<>();
+        synchronized (seeds) {
+            for (int t = 0; t < threads; t++) {
+                long share = games / threads + (t < games % threads ? 1 : 0);
+                workers.add(new Worker(new OXOPlayoutBoard(start), seeds.split(), share));
+            }
+        }
+        long began = System.nanoTime();
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(workers);
+            }
+        });
+        Stats total = new Stats(model.getNumberOfPlayers());
+        for (Worker worker : workers) {
+            total.add(worker.stats);
+        }
+        total.nanos = System.nanoTime() - began;
+        return total;
+    }
+
+    private static class Worker extends RecursiveAction {
+        private static final long serialVersionUID = 1;
+
+        private final OXOPlayoutBoard board;
+        private final SplittableRandom random;
+        private final long games;
+        final Stats stats;
+
+        Worker(OXOPlayoutBoard board, SplittableRandom random, long games) {
+            this.board = board;
+            this.random = random;
+            this.games = games;
+            stats = new Stats(board.players);
+        }
+
+        @Override
+        protected void compute() {
+            for (long game = 0; game < games; game++) {
+                board.restart();
+                int empty = board.getEmptyCount();
+                int winner = board.playOut(random);
+                stats.moves += empty - board.getEmptyCount();
+                if (winner == OXOPlayoutBoard.NO_WINNER) stats.draws++;
+                else stats.wins[winner]++;
+                stats.games++;
+            }
+        }
+    }
+
+    // Usage: rows columns threshold players games [opening moves...]
+    public static void main(String[] args) throws OXOMoveException {
+        if (args.length < 5) {
+            System.out.println("Usage: OXOSimulator rows columns threshold players games [opening moves...]");
+            return;
+        }
+        String[] opening = new String[args.length - 5];
+        System.arraycopy(args, 5, opening, 0, opening.length);
+        Stats stats = new OXOSimulator().simulate(Integer.parseInt(args[0]), Integer.parseInt(args[1]),
+            Integer.parseInt(args[2]), Integer.parseInt(args[3]), Long.parseLong(args[4]), opening);
+        System.out.println(stats);
+    }
+}
@@ -0,0 +1,636 @@
+package edu.uob;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+// Exhaustive alpha-beta search of an OXOModel position
+// Moves are played on private copies of the model and checked with OXOController.checkWin, so the solver agrees with live play
+// With more than two players the search is "paranoid": everybody else is assumed to play against the player to move
+// The root and the plies just below it are split over a fork-join pool once their first move has narrowed the window
+// Results are shared between the threads through an OXOTranspositionTable keyed by the model's position hash
+public class OXOSolver {
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int DEFAULT_PARALLEL_DEPTH = 2;
+    private static final int DEFAULT_TABLE_ENTRIES = 1 << 20;
+
+    private final ForkJoinPool pool;
+    private final int parallelDepth;
+    private final OXOTranspositionTable table;
+
+    public static class Result {
+        private final int value;
+        private final int row;
+        private final int column;
+        private final long nodes;
+
+        Result(int value, int row, int column, long nodes) {
+            this.value = value;
+            this.row = row;
+            this.column = column;
+            this.nodes = nodes;
+        }
+
+        // Positive when the player to move wins, negative when they lose and 0 for a draw
+        // The size is 1 + the number of cells still empty when the game is won, so quicker wins score higher
+        public int getValue() {
+            return value;
+        }
+
+        // Best move, or -1 when the game is already over
+        public int getRow() {
+            return row;
+        }
+
+        public int getColumn() {
+            return column;
+        }
+
+        // Identifier for OXOController.handleIncomingCommand, or null when there is no move to make
+        public String getCommand() {
+            return row < 0 ? null : OXOController.cellIdentifier(row, column);
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+    }
+
+    public OXOSolver() {
+        this(ForkJoinPool.commonPool(), DEFAULT_PARALLEL_DEPTH,
+            new OXOTranspositionTable(DEFAULT_TABLE_ENTRIES, OXOTranspositionTable.Replacement.DEPTH_PREFERRED));
+    }
+
+    // The table may be shared by several solvers and kept between solves
+    public OXOSolver(ForkJoinPool pool, int parallelDepth, OXOTranspositionTable table) {
+        this.pool = pool;
+        this.parallelDepth = parallelDepth;
+        this.table = table;
+    }
+
+    public OXOTranspositionTable getTable() {
+        return table;
+    }
+
+    public Result solve(OXOModel model) {
+        if (model.isUnbounded()) {
+            throw new IllegalArgumentException("Unbounded boards cannot be solved exhaustively");
+        }
+        Search search = new Search(model.getCurrentPlayerNumber());
+        Position root = new Position(model);
+        if (model.getWinner() != null) {
+            int size = 1 + root.countMoves();
+            int value = model.getWinner() == model.getPlayerByNumber(search.rootPlayer) ? size : -size;
+            return new Result(value, -1, -1, 0);
+        }
+        if (model.isBoardFull()) {
+            return new Result(0, -1, -1, 0);
+        }
+        // Two null window searches first ask "can the player to move win?" and "can they avoid losing?"
+        // Most positions are draws, which those two prove far quicker than a full window
+        // Only a win or a loss is searched again to find how quickly it happens
+        SearchTask task = new SearchTask(search, root, null, 0, 0, 1);
+        int value = pool.invoke(task);
+        if (value >= 1) {
+            task = new SearchTask(search, root, null, 0, 0, INFINITY);
+            value = pool.invoke(task);
+        } else {
+            task = new SearchTask(search, root, null, 0, -1, 0);
+            value = pool.invoke(task);
+            if (value >= 0) {
+                value = 0;
+            } else {
+                task = new SearchTask(search, root, null, 0, -INFINITY, 0);
+                value = pool.invoke(task);
+            }
+        }
+        search.nodes.add(root.nodes);
+        return new Result(value, task.bestMove / root.columns, task.bestMove % root.columns, search.nodes.sum());
+    }
+
+    // State shared by every thread working on one solve
+    private static class Search {
+        final int rootPlayer;
+        final long rootKey;
+        final LongAdder nodes = new LongAdder();
+
+        Search(int rootPlayer) {
+            this.rootPlayer = rootPlayer;
+            rootKey = OXOZobrist.searchRootKey(rootPlayer);
+        }
+    }
+
+    // A private copy of the model plus move buffers, only ever used by one thread at a time
+    private static class Position {
+        final OXOModel model;
+        final OXOController controller;
+        final int rows;
+        final int columns;
+        // Cells ordered from the centre outwards, which is where most lines go through
+        final int[] order;
+        final int[][] moves;
+        final int[] weights;
+        // Every line of winThreshold cells, for each cell the lines through it, and how many cells of each line every
+        // player holds. A line holding cells of two players can never be completed, once none is left the game is a draw
+        final int[][] cellLines;
+        final int[] lineCells;
+        final int[] distinctOwners;
+        int liveLines;
+        // Hash of the cells seen through each symmetry of the board (rotations and reflections), transposition keys
+        // use the smallest so that mirrored positions share their table entries
+        final int[][] symmetries;
+        final int[][] inverseSymmetries;
+        final long[] symmetricHashes;
+        int canonicalSymmetry;
+        long nodes;
+
+        Position(OXOModel source) {
+            model = source.copy();
+            controller = new OXOController(model);
+            rows = model.getNumberOfRows();
+            columns = model.getNumberOfColumns();
+            order = centreFirstOrder(rows, columns);
+            moves = new int[rows * columns + 1][];
+            weights = new int[rows * columns];
+            cellLines = linesThroughCells(rows, columns, model.getWinThreshold());
+            int lines = 0;
+            for (int[] through : cellLines) {
+                for (int line : through) lines = Math.max(lines, line + 1);
+            }
+            lineCells = new int[lines * model.getNumberOfPlayers()];
+            distinctOwners = new int[lines];
+            liveLines = lines;
+            symmetries = boardSymmetries(rows, columns);
+            inverseSymmetries = new int[symmetries.length][rows * columns];
+            for (int t = 0; t < symmetries.length; t++) {
+                for (int cell = 0; cell < rows * columns; cell++) inverseSymmetries[t][symmetries[t][cell]] = cell;
+            }
+            symmetricHashes = new long[symmetries.length];
+            for (int cell = 0; cell < rows * columns; cell++) {
+                OXOPlayer owner = model.getCellOwner(cell / columns, cell % columns);
+                for (int p = 0; owner != null && p < model.getNumberOfPlayers(); p++) {
+                    if (model.getPlayerByNumber(p) == owner) {
+                        countLines(cell, p, 1);
+                        hashCell(cell, p);
+                    }
+                }
+            }
+        }
+
+        Position(Position other) {
+            model = other.model.copy();
+            controller = new OXOController(model);
+            rows = other.rows;
+            columns = other.columns;
+            order = other.order;
+            moves = new int[other.moves.length][];
+            weights = new int[other.weights.length];
+            cellLines = other.cellLines;
+            lineCells = other.lineCells.clone();
+            distinctOwners = other.distinctOwners.clone();
+            liveLines = other.liveLines;
+            symmetries = other.symmetries;
+            inverseSymmetries = other.inverseSymmetries;
+            symmetricHashes = other.symmetricHashes.clone();
+        }
+
+        // Key for the transposition table, also remembers which symmetry it was taken through for toCanonical/fromCanonical
+        long canonicalKey() {
+            canonicalSymmetry = 0;
+            for (int t = 1; t < symmetricHashes.length; t++) {
+                if (symmetricHashes[t] < symmetricHashes[canonicalSymmetry]) canonicalSymmetry = t;
+            }
+            // The model's hash minus its cells leaves the current player, threshold and dimensions
+            return symmetricHashes[canonicalSymmetry] ^ model.getPositionHash() ^ symmetricHashes[0];
+        }
+
+        int toCanonical(int cell) {
+            return symmetries[canonicalSymmetry][cell];
+        }
+
+        int fromCanonical(int cell) {
+            return cell < 0 ? -1 : inverseSymmetries[canonicalSymmetry][cell];
+        }
+
+        private void hashCell(int cell, int playerNumber) {
+            for (int t = 0; t < symmetries.length; t++) {
+                int mapped = symmetries[t][cell];
+                symmetricHashes[t] ^= OXOZobrist.cellKey(mapped / columns, mapped % columns, playerNumber);
+            }
+        }
+
+        boolean isDeadDraw() {
+            return liveLines == 0;
+        }
+
+        private void countLines(int cell, int playerNumber, int delta) {
+            int players = model.getNumberOfPlayers();
+            for (int line : cellLines[cell]) {
+                int slot = line * players + playerNumber;
+                if (delta > 0 && lineCells[slot]++ == 0 && ++distinctOwners[line] == 2) liveLines--;
+                if (delta < 0 && --lineCells[slot] == 0 && distinctOwners[line]-- == 2) liveLines++;
+            }
+        }
+
+        int countMoves() {
+            return rows * columns - model.getNumberOfOccupiedCells();
+        }
+
+        // Fills the buffer for this ply with the empty cells, best looking first, and returns how many there are
+        // A cell with no live line through it can't matter to anybody any more, so only the first of those is kept
+        int generateMoves(int ply) {
+            if (moves[ply] == null) {
+                moves[ply] = new int[order.length];
+            }
+            int[] buffer = moves[ply];
+            int count = 0;
+            boolean deadCellKept = false;
+            for (int cell : order) {
+                if (model.getCellOwner(cell / columns, cell % columns) != null) {
+                    continue;
+                }
+                int weight = weigh(cell);
+                if (weight == 0) {
+                    if (deadCellKept) continue;
+                    deadCellKept = true;
+                }
+                // Insertion sort by weight, the centre-first order breaks ties
+                int i = count++;
+                while (i > 0 && weights[i - 1] < weight) {
+                    buffer[i] = buffer[i - 1];
+                    weights[i] = weights[i - 1];
+                    i--;
+                }
+                buffer[i] = cell;
+                weights[i] = weight;
+            }
+            return count;
+        }
+
+        // Sum over the live lines through the cell, lines that already hold more cells count for a lot more
+        // 0 means that no line through the cell can be completed any more
+        private int weigh(int cell) {
+            int players = model.getNumberOfPlayers();
+            int weight = 0;
+            for (int line : cellLines[cell]) {
+                if (distinctOwners[line] >= 2) continue;
+                int held = 0;
+                for (int p = 0; p < players; p++) held += lineCells[line * players + p];
+                weight += 1 << (2 * held);
+            }
+            return weight;
+        }
+
+        // Whether the player would win by taking the empty cell, asked of the model's run index so nothing is changed
+        boolean winsWith(int cell, int playerNumber) {
+            OXOPlayer player = model.getPlayerByNumber(playerNumber);
+            int run = model.getRunLengthIfClaimed(cell / columns, cell % columns, player);
+            if (run >= 0) {
+                return run >= model.getWinThreshold();
+            }
+            model.setCellOwner(cell / columns, cell % columns, player);
+            boolean won = controller.checkWin(cell / columns, cell % columns);
+            model.setCellOwner(cell / columns, cell % columns, null);
+            return won;
+        }
+
+        // Whether the player after the one to move would win by taking the cell
+        boolean threatens(int cell) {
+            return winsWith(cell, (model.getCurrentPlayerNumber() + 1) % model.getNumberOfPlayers());
+        }
+
+        // Claims the cell for the player to move and reports whether that won the game
+        boolean play(int cell) {
+            int mover = model.getCurrentPlayerNumber();
+            countLines(cell, mover, 1);
+            hashCell(cell, mover);
+            model.setCellOwner(cell / columns, cell % columns, model.getPlayerByNumber(mover));
+            model.setCurrentPlayerNumber((mover + 1) % model.getNumberOfPlayers());
+            return controller.checkWin(cell / columns, cell % columns);
+        }
+
+        void undo(int cell) {
+            int players = model.getNumberOfPlayers();
+            int mover = (model.getCurrentPlayerNumber() + players - 1) % players;
+            countLines(cell, mover, -1);
+            hashCell(cell, mover);
+            model.setCellOwner(cell / columns, cell % columns, null);
+            model.setCurrentPlayerNumber(mover);
+        }
+    }
+
+    private int search(Search search, Position position, Split split, int ply, int alpha, int beta) {
+        position.nodes++;
+        if (split != null && split.isStopped()) {
+            // A sibling further up has already refuted this line, the value is never used
+            return 0;
+        }
+        long key = position.canonicalKey() ^ search.rootKey;
+        int tableMove = -1;
+        long entry = table.probe(key);
+        if (entry != OXOTranspositionTable.MISS) {
+            int value = OXOTranspositionTable.valueOf(entry);
+            int bound = OXOTranspositionTable.boundOf(entry);
+            if (bound == OXOTranspositionTable.EXACT) return value;
+            if (bound == OXOTranspositionTable.LOWER_BOUND) alpha = Math.max(alpha, value);
+            if (bound == OXOTranspositionTable.UPPER_BOUND) beta = Math.min(beta, value);
+            if (alpha >= beta) return value;
+            tableMove = position.fromCanonical(OXOTranspositionTable.moveOf(entry));
+        }
+        int count = position.generateMoves(ply);
+        if (count == 0 || position.isDeadDraw()) {
+            return 0;
+        }
+        int empty = position.countMoves();
+        int depth = empty;
+        int[] moves = position.moves[ply];
+        boolean maximising = position.model.getCurrentPlayerNumber() == search.rootPlayer;
+        int winning = findWinningMove(position, moves, count);
+        if (winning >= 0) {
+            int value = maximising ? empty : -empty;
+            table.store(key, value, OXOTranspositionTable.EXACT, depth, position.toCanonical(moves[winning]));
+            return value;
+        }
+        int threats = findThreats(position, moves, count);
+        if (threats > 0) {
+            if (mustLetNextPlayerWin(search, position, maximising, threats, count)) {
+                int value = nextPlayerWinScore(search, position, empty);
+                table.store(key, value, OXOTranspositionTable.EXACT, depth, position.toCanonical(moves[0]));
+                return value;
+            }
+            count = 1;
+        } else {
+            moveToFront(moves, count, tableMove);
+        }
+        int alphaAtStart = alpha;
+        int betaAtStart = beta;
+        int best = maximising ? -INFINITY : INFINITY;
+        int bestMove = moves[0];
+        for (int i = 0; i < count; i++) {
+            position.play(moves[i]);
+            int score = search(search, position, split, ply + 1, alpha, beta);
+            position.undo(moves[i]);
+            if (maximising ? score > best : score < best) {
+                best = score;
+                bestMove = moves[i];
+            }
+            if (maximising) alpha = Math.max(alpha, score);
+            else beta = Math.min(beta, score);
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        if (split != null && split.isStopped()) {
+            return best;
+        }
+        int bound = OXOTranspositionTable.EXACT;
+        if (best <= alphaAtStart) bound = OXOTranspositionTable.UPPER_BOUND;
+        else if (best >= betaAtStart) bound = OXOTranspositionTable.LOWER_BOUND;
+        position.canonicalKey();
+        table.store(key, best, bound, depth, position.toCanonical(bestMove));
+        return best;
+    }
+
+    private static void moveToFront(int[] moves, int count, int move) {
+        for (int i = 1; i < count; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = move;
+                return;
+            }
+        }
+    }
+
+    // Index of a move that wins straight away, or -1
+    private static int findWinningMove(Position position, int[] moves, int count) {
+        int mover = position.model.getCurrentPlayerNumber();
+        for (int i = 0; i < count; i++) {
+            if (position.winsWith(moves[i], mover)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Moves the first cell the next player could win with to the front, returns how many there are (stopping at 2)
+    private static int findThreats(Position position, int[] moves, int count) {
+        int threats = 0;
+        for (int i = 0; i < count && threats < 2; i++) {
+            if (position.threatens(moves[i])) {
+                if (threats == 0) {
+                    int first = moves[i];
+                    moves[i] = moves[0];
+                    moves[0] = first;
+                }
+                threats++;
+            }
+        }
+        return threats;
+    }
+
+    // Two threats cannot both be blocked, and an opponent of the root player happily lets another opponent win
+    // In every other case the threat has to be blocked, so the blocking move is the only one worth searching
+    private static boolean mustLetNextPlayerWin(Search search, Position position, boolean maximising, int threats, int count) {
+        int next = (position.model.getCurrentPlayerNumber() + 1) % position.model.getNumberOfPlayers();
+        return threats > 1 || (!maximising && next != search.rootPlayer && count > 1);
+    }
+
+    // The next player wins on their move, after this move and theirs empty - 2 cells are left
+    private static int nextPlayerWinScore(Search search, Position position, int empty) {
+        int next = (position.model.getCurrentPlayerNumber() + 1) % position.model.getNumberOfPlayers();
+        return next == search.rootPlayer ? empty - 1 : 1 - empty;
+    }
+
+    // Moves of one node that are being searched in parallel, a child that refutes the node stops its siblings
+    private static class Split {
+        final Split parent;
+        final boolean maximising;
+        final int lower;
+        final int upper;
+        volatile boolean stopped;
+
+        Split(Split parent, boolean maximising, int lower, int upper) {
+            this.parent = parent;
+            this.maximising = maximising;
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        boolean isStopped() {
+            for (Split s = this; s != null; s = s.parent) {
+                if (s.stopped) return true;
+            }
+            return false;
+        }
+
+        // Called with the value of a finished child, returns false if the child was stopped and its value is meaningless
+        boolean report(int score) {
+            if (isStopped()) {
+                return false;
+            }
+            if (maximising ? score >= upper : score <= lower) {
+                stopped = true;
+            }
+            return true;
+        }
+    }
+
+    // Searches the first move on the calling thread, then the remaining moves in parallel on copies of the position
+    private class SearchTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1;
+
+        private final Search search;
+        private final Position position;
+        private final Split split;
+        private final int ply;
+        private final int alpha;
+        private final int beta;
+        int bestMove = -1;
+        boolean valid;
+
+        SearchTask(Search search, Position position, Split split, int ply, int alpha, int beta) {
+            this.search = search;
+            this.position = position;
+            this.split = split;
+            this.ply = ply;
+            this.alpha = alpha;
+            this.beta = beta;
+        }
+
+        protected Integer compute() {
+            int score = searchNode();
+            valid = split == null || split.report(score);
+            return score;
+        }
+
+        private int searchNode() {
+            if (ply >= parallelDepth && ply > 0) {
+                return search(search, position, split, ply, alpha, beta);
+            }
+            position.nodes++;
+            int count = position.generateMoves(ply);
+            if (count == 0 || position.isDeadDraw()) {
+                bestMove = count == 0 ? -1 : position.moves[ply][0];
+                return 0;
+            }
+            int empty = position.countMoves();
+            int[] moves = position.moves[ply].clone();
+            boolean maximising = position.model.getCurrentPlayerNumber() == search.rootPlayer;
+            int winning = findWinningMove(position, moves, count);
+            if (winning >= 0) {
+                bestMove = moves[winning];
+                return maximising ? empty : -empty;
+            }
+            int threats = findThreats(position, moves, count);
+            bestMove = moves[0];
+            if (threats > 0) {
+                if (mustLetNextPlayerWin(search, position, maximising, threats, count)) {
+                    return nextPlayerWinScore(search, position, empty);
+                }
+                count = 1;
+            }
+
+            int lower = alpha;
+            int upper = beta;
+            position.play(moves[0]);
+            int best = new SearchTask(search, position, split, ply + 1, lower, upper).searchNode();
+            position.undo(moves[0]);
+            if (maximising) lower = Math.max(lower, best);
+            else upper = Math.min(upper, best);
+            if (lower >= upper || count == 1) {
+                return best;
+            }
+
+            Split children = new Split(split, maximising, lower, upper);
+            List<SearchTask> tasks = new ArrayList<>();
+            for (int i = 1; i < count; i++) {
+                Position child = new Position(position);
+                child.play(moves[i]);
+                tasks.add(new SearchTask(search, child, children, ply + 1, lower, upper));
+            }
+            invokeAll(tasks);
+            for (int i = 0; i < tasks.size(); i++) {
+                SearchTask task = tasks.get(i);
+                search.nodes.add(task.position.nodes);
+                int score = task.join();
+                if (task.valid && (maximising ? score > best : score < best)) {
+                    best = score;
+                    bestMove = moves[i + 1];
+                }
+            }
+            return best;
+        }
+    }
+
+    // For each cell, the numbers of the lines of threshold cells (in any of the four directions) that go through it
+    private static int[][] linesThroughCells(int rows, int columns, int threshold) {
+        int[][] steps = { {0, 1}, {1, 0}, {1, 1}, {1, -1} };
+        List<List<Integer>> through = new ArrayList<>();
+        for (int i = 0; i < rows * columns; i++) {
+            through.add(new ArrayList<>());
+        }
+        int lines = 0;
+        for (int[] step : steps) {
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < columns; col++) {
+                    int endRow = row + step[0] * (threshold - 1);
+                    int endCol = col + step[1] * (threshold - 1);
+                    if (threshold < 1 || endRow >= rows || endCol < 0 || endCol >= columns) continue;
+                    for (int k = 0; k < threshold; k++) {
+                        through.get((row + step[0] * k) * columns + col + step[1] * k).add(lines);
+                    }
+                    lines++;
+                }
+            }
+        }
+        int[][] cellLines = new int[through.size()][];
+        for (int i = 0; i < cellLines.length; i++) {
+            cellLines[i] = through.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return cellLines;
+    }
+
+    // Cell permutations for the symmetries of the board, the first one is the identity
+    // Square boards have eight (rotations and reflections), other boards only the four that keep their shape
+    private static int[][] boardSymmetries(int rows, int columns) {
+        int count = rows == columns ? 8 : 4;
+        int[][] symmetries = new int[count][rows * columns];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                int cell = row * columns + col;
+                int flippedRow = rows - 1 - row;
+                int flippedCol = columns - 1 - col;
+                symmetries[0][cell] = cell;
+                symmetries[1][cell] = flippedRow * columns + col;
+                symmetries[2][cell] = row * columns + flippedCol;
+                symmetries[3][cell] = flippedRow * columns + flippedCol;
+                if (count == 8) {
+                    symmetries[4][cell] = col * columns + row;
+                    symmetries[5][cell] = flippedCol * columns + row;
+                    symmetries[6][cell] = col * columns + flippedRow;
+                    symmetries[7][cell] = flippedCol * columns + flippedRow;
+                }
+            }
+        }
+        return symmetries;
+    }
+
+    private static int[] centreFirstOrder(int rows, int columns) {
+        Integer[] cells = new Integer[rows * columns];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+        }
+        // Twice the distance so that even-sized boards compare exactly
+        Arrays.sort(cells, (a, b) -> Integer.compare(
+            Math.abs(2 * (a / columns) - (rows - 1)) + Math.abs(2 * (a % columns) - (columns - 1)),
+            Math.abs(2 * (b / columns) - (rows - 1)) + Math.abs(2 * (b % columns) - (columns - 1))));
+        int[] order = new int[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            order[i] = cells[i];
+        }
+        return order;
+    }
+}
@@ -0,0 +1,258 @@
+package edu.uob;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Cells are grouped into 8x8 tiles which only exist while at least one of their cells is claimed,
+// so memory follows the number of claimed cells rather than the size of the board
+// Tiles are kept in an open addressing table keyed by tile coordinates to avoid boxing a key on every lookup
+class OXOSparseCellStore implements OXOCellStore {
+    private static final int TILE_BITS = 3;
+    private static final int TILE_MASK = (1 << TILE_BITS) - 1;
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+
+    private static class Tile {
+        // Player number + 1 for each cell, 0 when empty
+        final byte[] owners = new byte[1 << (TILE_BITS * 2)];
+        int occupied;
+    }
+
+    private final List<OXOPlayer> players;
+    private int numberOfRows;
+    private int numberOfColumns;
+    private long[] keys;
+    private Tile[] tiles;
+    private int tileCount;
+
+    OXOSparseCellStore(int numberOfRows, int numberOfColumns, List<OXOPlayer> players) {
+        this.players = players;
+        this.numberOfRows = numberOfRows;
+        this.numberOfColumns = numberOfColumns;
+        allocate(16);
+    }
+
+    public int getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    public int getNumberOfColumns() {
+        return numberOfColumns;
+    }
+
+    public OXOPlayer get(int rowNumber, int colNumber) {
+        checkBounds(rowNumber, colNumber);
+        Tile tile = findTile(rowNumber, colNumber);
+        if (tile == null) {
+            return null;
+        }
+        int owner = tile.owners[cellOf(rowNumber, colNumber)];
+        return owner == 0 ? null : players.get(owner - 1);
+    }
+
+    public void set(int rowNumber, int colNumber, OXOPlayer player) {
+        checkBounds(rowNumber, colNumber);
+        byte owner = 0;
+        if (player != null) {
+            int index = players.indexOf(player);
+            if (index < 0) {
+                throw new IllegalArgumentException("Player " + player.getPlayingLetter() + " has not been added to the model");
+            }
+            if (index >= Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Sparse boards support at most " + Byte.MAX_VALUE + " players");
+            }
+            owner = (byte) (index + 1);
+        }
+        Tile tile = findTile(rowNumber, colNumber);
+        if (tile == null) {
+            if (owner == 0) {
+                return;
+            }
+            tile = insertTile(tileKey(rowNumber, colNumber));
+        }
+        int cell = cellOf(rowNumber, colNumber);
+        if (tile.owners[cell] == 0 && owner != 0) tile.occupied++;
+        if (tile.owners[cell] != 0 && owner == 0) tile.occupied--;
+        tile.owners[cell] = owner;
+        if (tile.occupied == 0) {
+            removeTile(tileKey(rowNumber, colNumber));
+        }
+    }
+
+    public void addRow() {
+        numberOfRows++;
+    }
+
+    public void addColumn() {
+        numberOfColumns++;
+    }
+
+    // Callers empty the last row or column first, so no tile can still hold cells outside the board
+    public void removeRow() {
+        numberOfRows--;
+    }
+
+    public void removeColumn() {
+        numberOfColumns--;
+    }
+
+    public OXOSparseCellStore copy(List<OXOPlayer> players) {
+        OXOSparseCellStore copy = new OXOSparseCellStore(numberOfRows, numberOfColumns, players);
+        copy.keys = keys.clone();
+        copy.tiles = new Tile[tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == null) continue;
+            copy.tiles[i] = new Tile();
+            System.arraycopy(tiles[i].owners, 0, copy.tiles[i].owners, 0, tiles[i].owners.length);
+            copy.tiles[i].occupied = tiles[i].occupied;
+        }
+        copy.tileCount = tileCount;
+        return copy;
+    }
+
+    public void forEachOccupied(OXOCellVisitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == EMPTY_KEY) continue;
+            int baseRow = ((int) (keys[i] >> 32)) << TILE_BITS;
+            int baseCol = ((int) keys[i]) << TILE_BITS;
+            byte[] owners = tiles[i].owners;
+            for (int cell = 0; cell < owners.length; cell++) {
+                if (owners[cell] != 0) {
+                    visitor.visit(baseRow + (cell >> TILE_BITS), baseCol + (cell & TILE_MASK), players.get(owners[cell] - 1));
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        allocate(16);
+    }
+
+    // Smallest claimed column >= fromCol in the row, or -1, found by looking at the existing tiles only
+    int nextOccupiedInRow(int rowNumber, int fromCol) {
+        int best = -1;
+        int tileRow = rowNumber >> TILE_BITS;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == EMPTY_KEY || (int) (keys[i] >> 32) != tileRow) continue;
+            int baseCol = ((int) keys[i]) << TILE_BITS;
+            for (int c = 0; c <= TILE_MASK; c++) {
+                int col = baseCol + c;
+                if (col >= fromCol && (best < 0 || col < best) && tiles[i].owners[cellOf(rowNumber, col)] != 0) {
+                    best = col;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Smallest claimed row >= fromRow in the column, or -1
+    int nextOccupiedInColumn(int colNumber, int fromRow) {
+        int best = -1;
+        int tileCol = colNumber >> TILE_BITS;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == EMPTY_KEY || (int) keys[i] != tileCol) continue;
+            int baseRow = ((int) (keys[i] >> 32)) << TILE_BITS;
+            for (int r = 0; r <= TILE_MASK; r++) {
+                int row = baseRow + r;
+                if (row >= fromRow && (best < 0 || row < best) && tiles[i].owners[cellOf(row, colNumber)] != 0) {
+                    best = row;
+                }
+            }
+        }
+        return best;
+    }
+
+    int getNumberOfTiles() {
+        return tileCount;
+    }
+
+    private void checkBounds(int rowNumber, int colNumber) {
+        if (rowNumber < 0 || rowNumber >= numberOfRows || colNumber < 0 || colNumber >= numberOfColumns) {
+            throw new IndexOutOfBoundsException("Cell [" + rowNumber + "," + colNumber + "] is outside the board");
+        }
+    }
+
+    private static long tileKey(int rowNumber, int colNumber) {
+        return ((long) (rowNumber >> TILE_BITS) << 32) | ((colNumber >> TILE_BITS) & 0xFFFFFFFFL);
+    }
+
+    private static int cellOf(int rowNumber, int colNumber) {
+        return ((rowNumber & TILE_MASK) << TILE_BITS) | (colNumber & TILE_MASK);
+    }
+
+    private int slotOf(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (keys.length - 1);
+    }
+
+    private Tile findTile(int rowNumber, int colNumber) {
+        long key = tileKey(rowNumber, colNumber);
+        for (int i = slotOf(key); keys[i] != EMPTY_KEY; i = (i + 1) & (keys.length - 1)) {
+            if (keys[i] == key) {
+                return tiles[i];
+            }
+        }
+        return null;
+    }
+
+    private Tile insertTile(long key) {
+        if ((tileCount + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int i = slotOf(key);
+        while (keys[i] != EMPTY_KEY) {
+            i = (i + 1) & (keys.length - 1);
+        }
+        keys[i] = key;
+        tiles[i] = new Tile();
+        tileCount++;
+        return tiles[i];
+    }
+
+    // Linear probing removal: shift later entries of the same probe chain back into the gap
+    private void removeTile(long key) {
+        int mask = keys.length - 1;
+        int gap = slotOf(key);
+        while (keys[gap] != key) {
+            gap = (gap + 1) & mask;
+        }
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (keys[i] == EMPTY_KEY) {
+                break;
+            }
+            int home = slotOf(keys[i]);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                tiles[gap] = tiles[i];
+                gap = i;
+            }
+        }
+        keys[gap] = EMPTY_KEY;
+        tiles[gap] = null;
+        tileCount--;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Tile[] oldTiles = tiles;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY_KEY) continue;
+            int j = slotOf(oldKeys[i]);
+            while (keys[j] != EMPTY_KEY) {
+                j = (j + 1) & (keys.length - 1);
+            }
+            keys[j] = oldKeys[i];
+            tiles[j] = oldTiles[i];
+            tileCount++;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+        tiles = new Tile[capacity];
+        tileCount = 0;
+    }
+}
@@ -0,0 +1,145 @@
+package edu.uob;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed size table of search results keyed by a position hash (see OXOModel.getPositionHash)
+// Each slot is two longs: the packed entry and the key XORed with it. A reader only accepts an entry when the two still
+// match, so a slot half written by another thread simply reads as a miss and no lock is needed
+// Entries are returned as packed longs and unpacked with the static accessors, so probing allocates nothing
+public class OXOTranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+    // Returned by probe when there is no usable entry, every stored entry has its top bit set
+    public static final long MISS = 0L;
+
+    public enum Replacement {
+        // Keep the entry searched to the greater depth
+        DEPTH_PREFERRED,
+        // Always overwrite with the newest entry
+        ALWAYS_REPLACE
+    }
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final long PRESENT = 1L << 63;
+    private static final int BOUND_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 18;
+    private static final int MOVE_SHIFT = 26;
+    private static final int MAX_DEPTH = 0xFF;
+    private static final int MAX_MOVE = 0xFFFFFF - 1;
+
+    private final long[] checks;
+    private final long[] entries;
+    private final int mask;
+    private final Replacement replacement;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    // The number of entries is rounded up to a power of two, each one takes 16 bytes
+    public OXOTranspositionTable(int numberOfEntries, Replacement replacement) {
+        int size = Integer.highestOneBit(Math.max(1, numberOfEntries - 1)) << 1;
+        checks = new long[size];
+        entries = new long[size];
+        mask = size - 1;
+        this.replacement = replacement;
+    }
+
+    public long probe(long key) {
+        int slot = slotOf(key);
+        long entry = (long) SLOTS.getOpaque(entries, slot);
+        long check = (long) SLOTS.getOpaque(checks, slot);
+        if (entry != MISS && (check ^ entry) == key) {
+            hits.increment();
+            return entry;
+        }
+        if (entry != MISS) {
+            collisions.increment();
+        }
+        misses.increment();
+        return MISS;
+    }
+
+    // move is any non-negative number below 2^24 (the solver uses the cell index), or -1 for none
+    public void store(long key, int value, int bound, int depth, int move) {
+        int slot = slotOf(key);
+        if (replacement == Replacement.DEPTH_PREFERRED) {
+            long existing = (long) SLOTS.getOpaque(entries, slot);
+            long check = (long) SLOTS.getOpaque(checks, slot);
+            if (existing != MISS && (check ^ existing) != key && depthOf(existing) > depth) {
+                return;
+            }
+        }
+        long entry = pack(value, bound, depth, move);
+        SLOTS.setOpaque(entries, slot, entry);
+        SLOTS.setOpaque(checks, slot, key ^ entry);
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length; i++) {
+            SLOTS.setOpaque(entries, i, MISS);
+            SLOTS.setOpaque(checks, i, 0L);
+        }
+        hits.reset();
+        misses.reset();
+        collisions.reset();
+    }
+
+    public int getNumberOfEntries() {
+        return entries.length;
+    }
+
+    public Replacement getReplacement() {
+        return replacement;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    // Probes that found the slot taken by a different position
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    public static int valueOf(long entry) {
+        return (short) entry;
+    }
+
+    public static int boundOf(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 0x3;
+    }
+
+    public static int depthOf(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    // Stored move, or -1 if there wasn't one
+    public static int moveOf(long entry) {
+        return (int) ((entry >>> MOVE_SHIFT) & 0xFFFFFF) - 1;
+    }
+
+    private static long pack(int value, int bound, int depth, int move) {
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Value " + value + " does not fit in a transposition table entry");
+        }
+        if (move > MAX_MOVE) {
+            throw new IllegalArgumentException("Move " + move + " does not fit in a transposition table entry");
+        }
+        return PRESENT
+            | ((long) (move + 1) << MOVE_SHIFT)
+            | ((long) Math.min(Math.max(depth, 0), MAX_DEPTH) << DEPTH_SHIFT)
+            | ((long) bound << BOUND_SHIFT)
+            | (value & 0xFFFFL);
+    }
+
+    private int slotOf(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+}
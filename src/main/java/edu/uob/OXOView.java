@@ -1,72 +1,103 @@
 package edu.uob;
 
-import java.awt.Color;
-import java.awt.Font;
 import java.awt.Graphics;
+import java.awt.Rectangle;
 import java.io.Serial;
 import javax.swing.JPanel;
 
 public class OXOView extends JPanel {
     @Serial private static final long serialVersionUID = 1;
-    private static int FONT_SIZE = 20;
-    private static Font FONT = new Font("SansSerif", Font.PLAIN, FONT_SIZE);
-    private static int MARGIN = 50;
 
     private OXOModel model;
+    private final OXOBoardPainter painter = new OXOBoardPainter();
+    private final Rectangle clipBounds = new Rectangle();
+
+    // What the screen shows, or will show once the repaints already asked for are done. refresh() compares the model
+    // with it to find what needs painting again. A width of -1 means nothing has been painted yet
+    private int shownWidth = -1;
+    private int shownHeight;
+    private int shownRows;
+    private int shownColumns;
+    // Letter of each cell's owner, 0 for empty cells
+    private char[] shownCells = new char[0];
+    private char shownWinner;
+    private boolean shownDrawn;
+    private char shownTurn;
 
     public OXOView(OXOModel mod) {
         model = mod;
     }
 
-    protected void paintComponent(Graphics g) {
-        g.setFont(FONT);
-
-        // Clear the whole board
-        g.setColor(Color.WHITE);
-        g.fillRect(0, 0, getWidth(), getHeight());
-
-        float horiSpacing = (float)(getWidth()-MARGIN*2) / model.getNumberOfColumns();
-        float vertSpacing = (float)(getHeight()-MARGIN*2) / model.getNumberOfRows();
-
-        // Draw horizontal lines
-        g.setColor(Color.BLACK);
-        for (int i = 0; i < model.getNumberOfRows() - 1; i++) {
-            g.drawLine(MARGIN, (int)(MARGIN+vertSpacing*(i+1)), getWidth()-MARGIN, (int)(MARGIN+vertSpacing*(i+1)));
+    // Repaints whatever has changed in the model since the last refresh or full paint, and nothing if nothing has:
+    // only the cells that changed and the message, unless the board or the view has changed size
+    public void refresh() {
+        int rows = model.getNumberOfRows();
+        int columns = model.getNumberOfColumns();
+        if (getWidth() != shownWidth || getHeight() != shownHeight || rows != shownRows || columns != shownColumns) {
+            rememberShown();
+            repaint();
+            return;
         }
-        // Draw vertical lines
-        for (int i = 0; i < model.getNumberOfColumns() - 1; i++) {
-            g.drawLine((int)(MARGIN+horiSpacing*(i+1)), MARGIN, (int)(MARGIN+horiSpacing*(i+1)), getHeight()-MARGIN);
+        float horiSpacing = (float)(getWidth()-OXOBoardPainter.MARGIN*2) / columns;
+        float vertSpacing = (float)(getHeight()-OXOBoardPainter.MARGIN*2) / rows;
+        for (int rowNumber = 0; rowNumber < rows; rowNumber++) {
+            for (int colNumber = 0; colNumber < columns; colNumber++) {
+                char letter = letterAt(rowNumber, colNumber);
+                if (letter != shownCells[rowNumber * columns + colNumber]) {
+                    shownCells[rowNumber * columns + colNumber] = letter;
+                    int xpos = OXOBoardPainter.cellX(colNumber, horiSpacing);
+                    int ypos = OXOBoardPainter.cellY(rowNumber, vertSpacing);
+                    int fontSize = OXOBoardPainter.FONT_SIZE;
+                    repaint(xpos - 2, ypos - fontSize, fontSize + 4, fontSize + fontSize / 2);
+                }
+            }
         }
-
-        // Draw the row labels
-        g.setColor(Color.LIGHT_GRAY);
-        for (int i = 0; i < model.getNumberOfRows(); i++) {
-            g.drawString("" + (char)('a'+i), MARGIN/2, (int)(MARGIN-2+(FONT_SIZE/2.0f)+vertSpacing*(i+0.5)));
+        char winner = model.getWinner() == null ? 0 : model.getWinner().getPlayingLetter();
+        char turn = currentLetter();
+        if (winner != shownWinner || model.isGameDrawn() != shownDrawn || turn != shownTurn) {
+            shownWinner = winner;
+            shownDrawn = model.isGameDrawn();
+            shownTurn = turn;
+            repaint(0, getHeight() - OXOBoardPainter.MESSAGE_HEIGHT, getWidth(), OXOBoardPainter.MESSAGE_HEIGHT);
         }
+    }
 
-        // Draw the column labels
-        g.setColor(Color.LIGHT_GRAY);
-        for (int i = 0; i < model.getNumberOfColumns(); i++) {
-            g.drawString("" + (char)('1'+i), (int)(MARGIN+2-(FONT_SIZE/2.0f)+horiSpacing*(i+0.5)), (int)((MARGIN/2)+(FONT_SIZE/2.0f)));
+    private void rememberShown() {
+        shownWidth = getWidth();
+        shownHeight = getHeight();
+        shownRows = model.getNumberOfRows();
+        shownColumns = model.getNumberOfColumns();
+        if (shownCells.length != shownRows * shownColumns) {
+            shownCells = new char[shownRows * shownColumns];
         }
-
-        // Draw the board state
-        g.setColor(Color.BLACK);
-        for (int colNumber = 0; colNumber < model.getNumberOfColumns(); colNumber++) {
-            for (int rowNumber = 0; rowNumber < model.getNumberOfRows(); rowNumber++) {
-                int xpos = (int) (((float) MARGIN) + 2 - (FONT_SIZE / 2) + (horiSpacing * (colNumber + 0.5f)));
-                int ypos = (int) (((float) MARGIN) + (FONT_SIZE / 2) + (vertSpacing * (rowNumber + 0.5f)));
-                OXOPlayer cellOwner = model.getCellOwner(rowNumber, colNumber);
-                if (cellOwner != null) g.drawString("" + cellOwner.getPlayingLetter(), xpos, ypos);
+        for (int rowNumber = 0; rowNumber < shownRows; rowNumber++) {
+            for (int colNumber = 0; colNumber < shownColumns; colNumber++) {
+                shownCells[rowNumber * shownColumns + colNumber] = letterAt(rowNumber, colNumber);
             }
         }
-        String message;
-        if (model.getWinner() != null) message = "Player " + model.getWinner().getPlayingLetter() + " is the winner !";
-        else if (model.isGameDrawn()) message = "Stalemate - game is a draw !";
-        else message = "Player " + model.getPlayerByNumber(model.getCurrentPlayerNumber()).getPlayingLetter() + "'s turn";
+        shownWinner = model.getWinner() == null ? 0 : model.getWinner().getPlayingLetter();
+        shownDrawn = model.isGameDrawn();
+        shownTurn = currentLetter();
+    }
+
+    private char letterAt(int rowNumber, int colNumber) {
+        OXOPlayer owner = model.getCellOwner(rowNumber, colNumber);
+        return owner == null ? 0 : owner.getPlayingLetter();
+    }
 
-        // Draw the message near the bottom of the screen
-        g.setColor(Color.BLACK);
-        g.drawString(message, 7, getHeight() - 10);
+    private char currentLetter() {
+        int current = model.getCurrentPlayerNumber();
+        return current < model.getNumberOfPlayers() ? model.getPlayerByNumber(current).getPlayingLetter() : 0;
+    }
+
+    // Only what falls inside the clip is drawn, which after refresh() is just the cells and message that changed
+    protected void paintComponent(Graphics g) {
+        clipBounds.setBounds(0, 0, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        Rectangle clip = g.getClipBounds(clipBounds);
+        if (clip == null || clip.contains(0, 0, getWidth(), getHeight())) {
+            // Everything is being painted, so the screen will match the model
+            rememberShown();
+        }
+        painter.paint(g, model, getWidth(), getHeight());
     }
 }
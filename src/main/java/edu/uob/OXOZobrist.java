@@ -0,0 +1,60 @@
+package edu.uob;
+
+import java.util.SplittableRandom;
+
+// Zobrist keys for OXOModel positions
+// Keys for the usual board sizes come from a fixed random table, anything beyond it (sparse boards, many players)
+// is derived by mixing the coordinates, which gives keys of the same quality without a table of unbounded size
+final class OXOZobrist {
+    private static final int TABLE_SIDE = 16;
+    private static final int TABLE_PLAYERS = 8;
+    private static final long[] CELL_KEYS = new long[TABLE_SIDE * TABLE_SIDE * TABLE_PLAYERS];
+    private static final long[] PLAYER_KEYS = new long[TABLE_PLAYERS];
+    private static final long[] THRESHOLD_KEYS = new long[TABLE_SIDE];
+
+    private static final long CELL_SALT = 0x3C6EF372FE94F82BL;
+    private static final long PLAYER_SALT = 0xA54FF53A5F1D36F1L;
+    private static final long THRESHOLD_SALT = 0x510E527FADE682D1L;
+    private static final long DIMENSION_SALT = 0x9B05688C2B3E6C1FL;
+    private static final long ROOT_SALT = 0x1F83D9ABFB41BD6BL;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x4F584F5A6F627269L);
+        for (int i = 0; i < CELL_KEYS.length; i++) CELL_KEYS[i] = random.nextLong();
+        for (int i = 0; i < PLAYER_KEYS.length; i++) PLAYER_KEYS[i] = random.nextLong();
+        for (int i = 0; i < THRESHOLD_KEYS.length; i++) THRESHOLD_KEYS[i] = random.nextLong();
+    }
+
+    private OXOZobrist() {}
+
+    static long cellKey(int row, int col, int playerNumber) {
+        if (row < TABLE_SIDE && col < TABLE_SIDE && playerNumber >= 0 && playerNumber < TABLE_PLAYERS) {
+            return CELL_KEYS[(row * TABLE_SIDE + col) * TABLE_PLAYERS + playerNumber];
+        }
+        return mix(CELL_SALT ^ ((long) row << 40) ^ ((long) col << 16) ^ playerNumber);
+    }
+
+    static long playerKey(int playerNumber) {
+        return playerNumber >= 0 && playerNumber < TABLE_PLAYERS ? PLAYER_KEYS[playerNumber] : mix(PLAYER_SALT ^ playerNumber);
+    }
+
+    static long thresholdKey(int threshold) {
+        return threshold >= 0 && threshold < TABLE_SIDE ? THRESHOLD_KEYS[threshold] : mix(THRESHOLD_SALT ^ threshold);
+    }
+
+    static long dimensionsKey(int rows, int cols) {
+        return mix(DIMENSION_SALT ^ ((long) rows << 32) ^ (cols & 0xFFFFFFFFL));
+    }
+
+    // Searches that score positions for one player mix this into their keys, so results for different players never meet
+    static long searchRootKey(int playerNumber) {
+        return mix(ROOT_SALT ^ playerNumber);
+    }
+
+    // SplitMix64 finaliser
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,127 @@
+package edu.uob;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandParsingTests {
+    private OXOModel model;
+    private OXOController controller;
+
+    @BeforeEach
+    void setup() {
+        model = new OXOModel(3, 3, 3);
+        model.addPlayer(new OXOPlayer('X'));
+        model.addPlayer(new OXOPlayer('O'));
+        controller = new OXOController(model);
+    }
+
+    @Test
+    void testOverloadsClaimTheSameCells() throws OXOMoveException {
+        controller.handleIncomingCommand(new StringBuilder("a1"));
+        controller.handleIncomingCommand('B', '2');
+        controller.handleIncomingCommand(2, 2);
+        controller.handleIncomingCommand(ByteBuffer.wrap("a3".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(model.getPlayerByNumber(0), model.getCellOwner(0, 0), "CharSequence overload should claim a1");
+        assertEquals(model.getPlayerByNumber(1), model.getCellOwner(1, 1), "char overload should claim b2");
+        assertEquals(model.getPlayerByNumber(0), model.getCellOwner(2, 2), "int overload should claim c3");
+        assertEquals(model.getPlayerByNumber(1), model.getCellOwner(0, 2), "ByteBuffer overload should claim a3");
+    }
+
+    @Test
+    void testByteBufferPositionIsKept() throws OXOMoveException {
+        ByteBuffer buffer = ByteBuffer.wrap("xxc2yy".getBytes(StandardCharsets.US_ASCII));
+        buffer.position(2).limit(4);
+        controller.handleIncomingCommand(buffer);
+        assertEquals(model.getPlayerByNumber(0), model.getCellOwner(2, 1), "Only the bytes between position and limit are read");
+        assertEquals(2, buffer.position(), "The buffer's position should not move");
+    }
+
+    @Test
+    void testOverloadsRunTheSameChecks() throws OXOMoveException {
+        assertThrows(OXOMoveException.InvalidIdentifierLengthException.class, () -> controller.handleIncomingCommand(new StringBuilder("a11")));
+        assertThrows(OXOMoveException.InvalidIdentifierCharacterException.class, () -> controller.handleIncomingCommand('j', '1'));
+        assertThrows(OXOMoveException.InvalidIdentifierCharacterException.class, () -> controller.handleIncomingCommand('a', '0'));
+        assertThrows(OXOMoveException.OutsideCellRangeException.class, () -> controller.handleIncomingCommand(-1, 0));
+        assertThrows(OXOMoveException.OutsideCellRangeException.class, () -> controller.handleIncomingCommand(0, 3));
+        assertThrows(OXOMoveException.InvalidIdentifierLengthException.class,
+            () -> controller.handleIncomingCommand(ByteBuffer.wrap(new byte[] { 'a' })));
+        controller.handleIncomingCommand('a', '1');
+        assertThrows(OXOMoveException.CellAlreadyTakenException.class, () -> controller.handleIncomingCommand(0, 0));
+    }
+
+    @Test
+    void testByteBufferOnUnboundedBoard() throws OXOMoveException {
+        OXOModel sparse = new OXOModel(100, 100, 3, OXOModel.Storage.SPARSE);
+        sparse.addPlayer(new OXOPlayer('X'));
+        sparse.addPlayer(new OXOPlayer('O'));
+        OXOController sparseController = new OXOController(sparse);
+        sparseController.handleIncomingCommand(ByteBuffer.wrap("cd42".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(sparse.getPlayerByNumber(0), sparse.getCellOwner(81, 41), "Extended identifiers should be read from bytes too");
+    }
+
+    @Test
+    void testResultCodes() {
+        assertEquals(OXOMoveResult.INVALID_IDENTIFIER_LENGTH, controller.tryIncomingCommand("a"));
+        assertEquals(OXOMoveResult.INVALID_ROW_CHARACTER, controller.tryIncomingCommand("z1"));
+        assertEquals(OXOMoveResult.INVALID_COLUMN_CHARACTER, controller.tryIncomingCommand("ax"));
+        assertEquals(OXOMoveResult.ROW_OUTSIDE_RANGE, controller.tryIncomingCommand("d1"));
+        assertEquals(OXOMoveResult.COLUMN_OUTSIDE_RANGE, controller.tryIncomingCommand(0, 5));
+        assertEquals(0, model.getNumberOfOccupiedCells(), "Rejected moves should leave the board alone");
+        assertEquals(0, model.getCurrentPlayerNumber(), "Rejected moves should not pass the turn on");
+        assertEquals(OXOMoveResult.OK, controller.tryIncomingCommand("a1"));
+        assertEquals(OXOMoveResult.CELL_ALREADY_TAKEN, controller.tryIncomingCommand('A', '1'));
+        controller.tryIncomingCommand("b1");
+        controller.tryIncomingCommand("a2");
+        controller.tryIncomingCommand("b2");
+        assertEquals(OXOMoveResult.OK, controller.tryIncomingCommand("a3"));
+        assertEquals(OXOMoveResult.GAME_OVER, controller.tryIncomingCommand("c3"));
+        assertNull(model.getCellOwner(2, 2), "No moves after the game is won");
+    }
+
+    @Test
+    void testExceptionsKeepTheirMessages() throws OXOMoveException {
+        controller.handleIncomingCommand("b3");
+        OXOMoveException taken = assertThrows(OXOMoveException.class, () -> controller.handleIncomingCommand("b3"));
+        assertEquals(new OXOMoveException.CellAlreadyTakenException(2, 3).getMessage(), taken.getMessage());
+        OXOMoveException range = assertThrows(OXOMoveException.class, () -> controller.handleIncomingCommand("e1"));
+        assertEquals(new OXOMoveException.OutsideCellRangeException(OXOMoveException.RowOrColumn.ROW, 4).getMessage(), range.getMessage());
+        OXOMoveException character = assertThrows(OXOMoveException.class, () -> controller.handleIncomingCommand("a?"));
+        assertEquals(new OXOMoveException.InvalidIdentifierCharacterException(OXOMoveException.RowOrColumn.COLUMN, '?').getMessage(), character.getMessage());
+    }
+
+    @Test
+    void testBatchMatchesSingleMoves() throws OXOMoveException {
+        List<String> moves = List.of("b2", "a1", "c3", "a3", "a2", "c2", "b1", "b3", "c1");
+        OXOModel single = new OXOModel(3, 3, 3);
+        single.addPlayer(model.getPlayerByNumber(0));
+        single.addPlayer(model.getPlayerByNumber(1));
+        OXOController singleController = new OXOController(single);
+        for (String move : moves) singleController.handleIncomingCommand(move);
+        OXOController.BatchResult result = controller.applyMoves(moves);
+        assertEquals(9, result.getMovesApplied(), "Every move should be made");
+        assertEquals(OXOMoveResult.OK, result.getResult());
+        assertEquals(single.getPositionHash(), model.getPositionHash(), "Batch and single moves should reach the same position");
+        assertEquals(single.isGameDrawn(), model.isGameDrawn(), "Batch and single moves should agree on the draw");
+    }
+
+    @Test
+    void testBatchStopsAtErrorsAndGameEnd() {
+        OXOController.BatchResult result = controller.applyMoves(List.of("a1", "b1", "a1", "a2"));
+        assertEquals(2, result.getMovesApplied(), "The batch should stop at the taken cell");
+        assertEquals(OXOMoveResult.CELL_ALREADY_TAKEN, result.getResult());
+        assertEquals(0, model.getCurrentPlayerNumber(), "The turn should be passed on for the moves that were made");
+        long[] encoded = { OXOController.encodeMove(0, 1), OXOController.encodeMove(1, 1), OXOController.encodeMove(0, 2),
+            OXOController.encodeMove(2, 2) };
+        result = controller.applyMoves(encoded);
+        assertEquals(3, result.getMovesApplied(), "The batch should stop once the game is won");
+        assertEquals(OXOMoveResult.GAME_OVER, result.getResult());
+        assertEquals(model.getPlayerByNumber(0), model.getWinner());
+        assertNull(model.getCellOwner(2, 2), "No moves after the game is won");
+    }
+}
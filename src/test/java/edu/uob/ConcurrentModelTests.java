@@ -0,0 +1,108 @@
+package edu.uob;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentModelTests {
+
+    OXOConcurrentModel createModel() {
+        OXOConcurrentModel model = new OXOConcurrentModel(3, 3, 3);
+        model.addPlayer(new OXOPlayer('X'));
+        model.addPlayer(new OXOPlayer('O'));
+        return model;
+    }
+
+    @Test
+    void testSnapshotFollowsChanges() throws OXOMoveException {
+        OXOConcurrentModel model = createModel();
+        OXOController controller = new OXOController(model);
+        controller.handleIncomingCommand("b2");
+        controller.addRow();
+        OXOModelSnapshot snapshot = model.snapshot();
+        assertEquals(4, snapshot.getNumberOfRows());
+        assertEquals(0, snapshot.getCellOwnerNumber(1, 1), "X should own b2");
+        assertEquals(-1, snapshot.getCellOwnerNumber(3, 2), "The new row should be empty");
+        assertEquals(1, snapshot.getCurrentPlayerNumber());
+        long version = snapshot.getVersion();
+        controller.handleIncomingCommand("a1");
+        controller.handleIncomingCommand("d3");
+        controller.handleIncomingCommand("a2");
+        controller.handleIncomingCommand("c3");
+        controller.handleIncomingCommand("a3");
+        assertSame(snapshot, model.snapshot(snapshot), "The snapshot passed in should be filled in");
+        assertTrue(snapshot.getVersion() > version, "The version should move on with every change");
+        assertEquals(1, snapshot.getWinnerNumber(), "O should have won");
+        controller.reset();
+        model.snapshot(snapshot);
+        assertEquals(-1, snapshot.getWinnerNumber());
+        assertEquals(-1, snapshot.getCellOwnerNumber(1, 1), "Reset should clear the snapshot's board");
+    }
+
+    @Test
+    void testSparseStorageIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new OXOConcurrentModel(3, 3, 3, OXOModel.Storage.SPARSE));
+    }
+
+    @Test
+    void testReadersNeverSeeHalfAMove() throws Exception {
+        OXOConcurrentModel model = createModel();
+        OXOController controller = new OXOController(model);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Long>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(executor.submit(() -> {
+                    OXOModelSnapshot snapshot = new OXOModelSnapshot();
+                    long checked = 0;
+                    while (writing.get() || checked == 0) {
+                        model.snapshot(snapshot);
+                        int claimed = 0;
+                        int claimedByX = 0;
+                        for (int row = 0; row < snapshot.getNumberOfRows(); row++) {
+                            for (int col = 0; col < snapshot.getNumberOfColumns(); col++) {
+                                if (snapshot.getCellOwnerNumber(row, col) >= 0) claimed++;
+                                if (snapshot.getCellOwnerNumber(row, col) == 0) claimedByX++;
+                            }
+                        }
+                        // X always moves first, so a consistent board has X one cell ahead or level and it is the turn of
+                        // whoever is behind
+                        assertEquals((claimed + 1) / 2, claimedByX, "X and O should take turns");
+                        assertEquals(claimed % 2, snapshot.getCurrentPlayerNumber(), "The turn should match the board");
+                        checked++;
+                    }
+                    return checked;
+                }));
+            }
+            Future<?> writer = executor.submit(() -> {
+                int[] sizes = { 3, 4, 5 };
+                for (int game = 0; game < 3000; game++) {
+                    controller.reset();
+                    int size = sizes[game % sizes.length];
+                    while (model.getNumberOfRows() < size) controller.addRow();
+                    while (model.getNumberOfRows() > size) controller.removeRow();
+                    for (int cell = 0; cell < size * 3 && model.getWinner() == null; cell++) {
+                        controller.tryIncomingCommand(cell % size, cell / size);
+                    }
+                }
+                writing.set(false);
+                return null;
+            });
+            writer.get();
+            for (Future<Long> reader : readers) {
+                assertTrue(reader.get() > 0, "Every reader should have checked some snapshots");
+            }
+        } finally {
+            writing.set(false);
+            executor.shutdownNow();
+        }
+    }
+}
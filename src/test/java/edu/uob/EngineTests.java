@@ -0,0 +1,125 @@
+package edu.uob;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(10)
+class EngineTests {
+    private OXOEngine engine;
+    private final AtomicInteger published = new AtomicInteger();
+
+    @BeforeAll
+    static void headless() {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    @BeforeEach
+    void setup() {
+        OXOConcurrentModel model = new OXOConcurrentModel(3, 3, 3);
+        model.addPlayer(new OXOPlayer('X'));
+        model.addPlayer(new OXOPlayer('O'));
+        engine = new OXOEngine(model, () -> {
+            assertTrue(SwingUtilities.isEventDispatchThread(), "The GUI should only be told on the event dispatch thread");
+            published.incrementAndGet();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    // Waits for every catch up already queued
+    void waitForEventDispatchThread() throws InterruptedException, InvocationTargetException {
+        SwingUtilities.invokeAndWait(() -> {});
+    }
+
+    char shownLetter(int rowNumber, int colNumber) throws InterruptedException, InvocationTargetException {
+        char[] letter = new char[1];
+        SwingUtilities.invokeAndWait(() -> {
+            OXOPlayer owner = engine.getShownModel().getCellOwner(rowNumber, colNumber);
+            letter[0] = owner == null ? '.' : owner.getPlayingLetter();
+        });
+        return letter[0];
+    }
+
+    @Test
+    void testCommandsReachTheShownModel() throws Exception {
+        engine.submit(controller -> controller.handleIncomingCommand("b2")).get();
+        engine.submit(OXOController::addRow).get();
+        assertEquals('X', shownLetter(1, 1));
+        SwingUtilities.invokeAndWait(() -> {
+            assertEquals(4, engine.getShownModel().getNumberOfRows());
+            assertEquals(1, engine.getShownModel().getCurrentPlayerNumber());
+        });
+        engine.submit(OXOController::undo).get();
+        engine.submit(OXOController::undo).get();
+        assertEquals('.', shownLetter(1, 1), "Undoing should be shown too");
+    }
+
+    @Test
+    void testRejectedCommandsFailTheirFuture() throws Exception {
+        engine.submit(controller -> controller.handleIncomingCommand("a1")).get();
+        waitForEventDispatchThread();
+        int before = published.get();
+        CompletableFuture<Void> rejected = engine.submit(controller -> controller.handleIncomingCommand("a1"));
+        ExecutionException thrown = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(OXOMoveException.class, thrown.getCause());
+        waitForEventDispatchThread();
+        assertEquals(before, published.get(), "Nothing changed, so nothing should be repainted");
+    }
+
+    // Changes made while the event dispatch thread is busy are shown all at once when it gets to them
+    @Test
+    void testCatchUpsAreCoalesced() throws Exception {
+        waitForEventDispatchThread();
+        int before = published.get();
+        CountDownLatch busy = new CountDownLatch(1);
+        SwingUtilities.invokeLater(() -> {
+            try {
+                busy.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CompletableFuture<Void> last = null;
+        for (String move : new String[] {"a1", "b1", "a2", "b2", "a3"}) {
+            last = engine.submit(controller -> controller.handleIncomingCommand(move));
+        }
+        last.get();
+        busy.countDown();
+        waitForEventDispatchThread();
+        assertEquals(before + 1, published.get(), "Five moves should have been shown with one repaint");
+        SwingUtilities.invokeAndWait(() -> assertEquals('X', engine.getShownModel().getWinner().getPlayingLetter()));
+    }
+
+    // A slow action holds up the engine's thread, not the event dispatch thread
+    @Test
+    void testSlowActionsDoNotBlockTheGui() throws Exception {
+        CountDownLatch thinking = new CountDownLatch(1);
+        CompletableFuture<Void> slow = engine.submit(controller -> {
+            try {
+                thinking.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            controller.handleIncomingCommand("c3");
+        });
+        assertEquals('.', shownLetter(2, 2), "The event dispatch thread should answer while the engine thinks");
+        thinking.countDown();
+        slow.get();
+        assertEquals('X', shownLetter(2, 2));
+    }
+}
@@ -0,0 +1,145 @@
+package edu.uob;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryTests {
+    private OXOModel model;
+    private OXOController controller;
+
+    @BeforeEach
+    void setup() {
+        model = new OXOModel(3, 3, 3);
+        model.addPlayer(new OXOPlayer('X'));
+        model.addPlayer(new OXOPlayer('O'));
+        controller = new OXOController(model);
+    }
+
+    void play(String... moves) throws OXOMoveException {
+        for (String move : moves) {
+            controller.handleIncomingCommand(move);
+        }
+    }
+
+    @Test
+    void testUndoingEveryMoveGetsBackToTheStart() throws OXOMoveException {
+        long start = model.getPositionHash();
+        play("a1", "b2", "c3");
+        assertFalse(controller.canRedo());
+        while (controller.undo()) {
+            assertTrue(controller.canRedo());
+        }
+        assertEquals(start, model.getPositionHash());
+        assertEquals(0, model.getNumberOfOccupiedCells());
+        assertEquals(0, model.getCurrentPlayerNumber());
+        assertFalse(controller.canUndo());
+        assertFalse(controller.undo(), "There should be nothing left to undo");
+    }
+
+    @Test
+    void testChangingTheThresholdIsOneStep() throws OXOMoveException {
+        controller.changeWinThreshold(7);
+        assertEquals(7, model.getWinThreshold());
+        controller.undo();
+        assertEquals(3, model.getWinThreshold(), "However far it went, one undo should take it back");
+        assertFalse(controller.canUndo());
+        controller.changeWinThreshold(1);
+        assertEquals(3, model.getWinThreshold(), "The threshold can't go below 3");
+        assertFalse(controller.canUndo(), "Nothing changed, so nothing should be recorded");
+        controller.changeWinThreshold(5);
+        play("a1");
+        controller.changeWinThreshold(4);
+        assertEquals(5, model.getWinThreshold(), "The threshold can't go down during a game");
+    }
+
+    @Test
+    void testUndoingTheWinningMoveLetsPlayCarryOn() throws OXOMoveException {
+        play("a1", "b1", "a2", "b2", "a3");
+        OXOPlayer x = model.getPlayerByNumber(0);
+        assertEquals(x, model.getWinner());
+        long won = model.getPositionHash();
+        controller.undo();
+        assertNull(model.getWinner(), "Taking back the winning move should take back the win");
+        assertEquals(0, model.getCurrentPlayerNumber(), "It should be X's turn again");
+        controller.redo();
+        assertEquals(x, model.getWinner());
+        assertEquals(won, model.getPositionHash());
+        controller.undo();
+        play("c1");
+        assertFalse(controller.canRedo(), "A new move should drop the undone one");
+        assertNull(model.getCellOwner(0, 2));
+        assertEquals(x, model.getCellOwner(2, 0));
+    }
+
+    @Test
+    void testUndoingTheLastMoveTakesBackTheDraw() throws OXOMoveException {
+        play("a1", "a2", "a3", "b2", "b1", "b3", "c2", "c1", "c3");
+        assertTrue(model.isGameDrawn());
+        controller.undo();
+        assertFalse(model.isGameDrawn());
+        controller.redo();
+        assertTrue(model.isGameDrawn());
+    }
+
+    @Test
+    void testResizesAndThresholdChangesAreUndone() throws OXOMoveException {
+        controller.addRow();
+        controller.increaseWinThreshold();
+        play("d1");
+        controller.addColumn();
+        controller.removeColumn();
+        controller.removeColumn();
+        assertEquals(2, model.getNumberOfColumns());
+        controller.undo();
+        controller.undo();
+        controller.undo();
+        assertEquals(3, model.getNumberOfColumns());
+        controller.undo();
+        assertNull(model.getCellOwner(3, 0));
+        controller.undo();
+        assertEquals(3, model.getWinThreshold());
+        controller.undo();
+        assertEquals(3, model.getNumberOfRows());
+        assertFalse(controller.canUndo());
+        while (controller.redo()) {
+            // Everything should come back in the same order
+        }
+        assertEquals(4, model.getNumberOfRows());
+        assertEquals(2, model.getNumberOfColumns());
+        assertEquals(4, model.getWinThreshold());
+        assertEquals(model.getPlayerByNumber(0), model.getCellOwner(3, 0));
+    }
+
+    @Test
+    void testChangesThatDidNothingAreNotRecorded() throws OXOMoveException {
+        play("c3");
+        controller.removeRow();
+        controller.decreaseWinThreshold();
+        controller.undo();
+        assertFalse(controller.canUndo(), "Only the move should have been recorded");
+    }
+
+    @Test
+    void testBatchMovesAreUndoneOneAtATime() {
+        controller.applyMoves(List.of("a1", "b2", "c3"));
+        controller.undo();
+        assertNull(model.getCellOwner(2, 2));
+        assertEquals(0, model.getCurrentPlayerNumber(), "It should be X's turn to play c3 again");
+        controller.undo();
+        assertNull(model.getCellOwner(1, 1));
+        assertEquals(1, model.getCurrentPlayerNumber());
+    }
+
+    @Test
+    void testResetClearsTheHistory() throws OXOMoveException {
+        play("a1", "b2");
+        controller.undo();
+        controller.reset();
+        assertFalse(controller.canUndo());
+        assertFalse(controller.canRedo());
+    }
+}
@@ -0,0 +1,153 @@
+package edu.uob;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTests {
+    @TempDir
+    Path directory;
+
+    OXOModel createModel() {
+        OXOModel model = new OXOModel(3, 3, 3);
+        model.addPlayer(new OXOPlayer('X'));
+        model.addPlayer(new OXOPlayer('O'));
+        return model;
+    }
+
+    void assertSamePosition(OXOModel expected, OXOModel actual) {
+        assertEquals(expected.getPositionHash(), actual.getPositionHash(), "Replay should rebuild the same position");
+        assertEquals(expected.getNumberOfRows(), actual.getNumberOfRows());
+        assertEquals(expected.getNumberOfColumns(), actual.getNumberOfColumns());
+        assertEquals(expected.isGameDrawn(), actual.isGameDrawn());
+        if (expected.getWinner() == null) assertNull(actual.getWinner());
+        else assertEquals(expected.getWinner().getPlayingLetter(), actual.getWinner().getPlayingLetter());
+    }
+
+    @Test
+    void testReplayRebuildsTheGame() throws IOException, OXOMoveException {
+        OXOModel model = createModel();
+        OXOController controller = new OXOController(model);
+        try (OXOJournal journal = new OXOJournal(directory, 8)) {
+            journal.attach(model);
+            controller.handleIncomingCommand("a1");
+            controller.addRow();
+            controller.addColumn();
+            controller.handleIncomingCommand("d4");
+            controller.increaseWinThreshold();
+            assertTrue(journal.getNumberOfRecords() > 8, "The game should have needed more than one segment");
+        }
+        assertSamePosition(model, OXOJournal.replay(directory));
+        assertTrue(Files.exists(directory.resolve("journal-000001.seg")), "A second segment should have been started");
+    }
+
+    @Test
+    void testReplayStopsPartWay() throws IOException, OXOMoveException {
+        OXOModel model = createModel();
+        OXOController controller = new OXOController(model);
+        long afterFirstMove;
+        try (OXOJournal journal = new OXOJournal(directory)) {
+            journal.attach(model);
+            controller.handleIncomingCommand("b2");
+            afterFirstMove = journal.getNumberOfRecords();
+            OXOModel expected = model.copy();
+            controller.handleIncomingCommand("a1");
+            controller.removeRow();
+            controller.reset();
+            assertSamePosition(expected, OXOJournal.replay(directory, afterFirstMove));
+        }
+        assertSamePosition(model, OXOJournal.replay(directory));
+    }
+
+    @Test
+    void testReopenedJournalCarriesOn() throws IOException, OXOMoveException {
+        OXOModel model = createModel();
+        OXOController controller = new OXOController(model);
+        try (OXOJournal journal = new OXOJournal(directory, 4)) {
+            journal.attach(model);
+            controller.handleIncomingCommand("a1");
+        }
+        try (OXOJournal journal = new OXOJournal(directory, 4)) {
+            journal.attach(model);
+            controller.handleIncomingCommand("a2");
+            controller.handleIncomingCommand("b1");
+            controller.handleIncomingCommand("b2");
+            controller.handleIncomingCommand("c1");
+        }
+        OXOModel replayed = OXOJournal.replay(directory);
+        assertSamePosition(model, replayed);
+        assertEquals('X', replayed.getWinner().getPlayingLetter(), "X should have won in the replay too");
+    }
+
+    // Records in full segments are counted from the segment size, so it can't change once the journal exists
+    @Test
+    void testReopenedJournalKeepsItsSegmentSize() throws IOException, OXOMoveException {
+        OXOModel model = createModel();
+        OXOController controller = new OXOController(model);
+        try (OXOJournal journal = new OXOJournal(directory, 4)) {
+            journal.attach(model);
+            controller.handleIncomingCommand("a1");
+        }
+        assertThrows(IllegalArgumentException.class, () -> new OXOJournal(directory, 8));
+        assertThrows(IllegalArgumentException.class, () -> new OXOJournal(directory, 2));
+        long records;
+        try (OXOJournal journal = new OXOJournal(directory)) {
+            records = journal.getNumberOfRecords();
+            journal.attach(model);
+            controller.handleIncomingCommand("b2");
+            assertTrue(journal.getNumberOfRecords() > records);
+        }
+        for (int i = 0; Files.exists(directory.resolve(String.format("journal-%06d.seg", i))); i++) {
+            assertEquals(4 * OXOJournal.RECORD_BYTES, Files.size(directory.resolve(String.format("journal-%06d.seg", i))),
+                "Reopening without a size should carry on with 4 records per segment");
+        }
+        assertSamePosition(model, OXOJournal.replay(directory));
+    }
+
+    // A crash that cut the file short in the middle of a record loses just that record
+    @Test
+    void testRecordCutInHalfIsDropped() throws IOException, OXOMoveException {
+        OXOModel model = createModel();
+        OXOController controller = new OXOController(model);
+        long records;
+        try (OXOJournal journal = new OXOJournal(directory, 64)) {
+            journal.attach(model);
+            controller.handleIncomingCommand("a1");
+            controller.handleIncomingCommand("b2");
+            records = journal.getNumberOfRecords();
+        }
+        OXOModel beforeLastRecord = OXOJournal.replay(directory, records - 1);
+        try (FileChannel channel = FileChannel.open(directory.resolve("journal-000000.seg"), StandardOpenOption.WRITE)) {
+            channel.truncate((records - 1) * OXOJournal.RECORD_BYTES + OXOJournal.RECORD_BYTES / 2);
+        }
+        assertSamePosition(beforeLastRecord, OXOJournal.replay(directory));
+        try (OXOJournal journal = new OXOJournal(directory, 64)) {
+            assertEquals(records - 1, journal.getNumberOfRecords(), "The half record should not be counted");
+            journal.attach(model);
+            controller.handleIncomingCommand("c3");
+        }
+        assertSamePosition(model, OXOJournal.replay(directory));
+    }
+
+    @Test
+    void testChangesAfterDetachAreNotRecorded() throws IOException, OXOMoveException {
+        OXOModel model = createModel();
+        OXOController controller = new OXOController(model);
+        try (OXOJournal journal = new OXOJournal(directory)) {
+            journal.attach(model);
+            controller.handleIncomingCommand("c3");
+            journal.detach();
+            long records = journal.getNumberOfRecords();
+            controller.handleIncomingCommand("c2");
+            assertEquals(records, journal.getNumberOfRecords(), "A detached model should not be recorded");
+        }
+        assertNull(OXOJournal.replay(directory).getCellOwner(2, 1), "The move after detaching should not be replayed");
+    }
+}
@@ -0,0 +1,84 @@
+package edu.uob;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.awt.event.KeyEvent;
+import java.util.concurrent.CountDownLatch;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(10)
+class KeyInputTests {
+    private OXOConcurrentModel model;
+    private OXOEngine engine;
+    private OXOKeyInput keys;
+    private final JPanel source = new JPanel();
+    private final CountDownLatch frameEnded = new CountDownLatch(1);
+
+    @BeforeAll
+    static void headless() {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    @BeforeEach
+    void setup() {
+        model = new OXOConcurrentModel(3, 3, 3);
+        model.addPlayer(new OXOPlayer('X'));
+        model.addPlayer(new OXOPlayer('O'));
+        engine = new OXOEngine(model, () -> {});
+        keys = new OXOKeyInput(model, engine, frameEnded::countDown);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        SwingUtilities.invokeAndWait(keys::stop);
+        engine.close();
+    }
+
+    void type(char letter) {
+        keys.keyTyped(new KeyEvent(source, KeyEvent.KEY_TYPED, 0, 0, KeyEvent.VK_UNDEFINED, letter));
+    }
+
+    // Waits for the frame to end and for what it submitted to have run
+    void waitForFrame() throws Exception {
+        frameEnded.await();
+        SwingUtilities.invokeAndWait(() -> {});
+        engine.submit(controller -> {}).get();
+    }
+
+    @Test
+    void testKeysInAFrameMakeOneThresholdChange() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            for (int i = 0; i < 4; i++) type('=');
+            type('-');
+            type('x');
+        });
+        waitForFrame();
+        assertEquals(6, model.getWinThreshold(), "Four ups and a down should leave the threshold three higher");
+        boolean[] undone = new boolean[2];
+        engine.submit(controller -> {
+            undone[0] = controller.undo();
+            undone[1] = controller.canUndo();
+        }).get();
+        assertTrue(undone[0]);
+        assertFalse(undone[1], "The keys should have been recorded as one change");
+        assertEquals(3, model.getWinThreshold());
+    }
+
+    @Test
+    void testEscapeResets() throws Exception {
+        engine.submit(controller -> controller.handleIncomingCommand("a1")).get();
+        SwingUtilities.invokeAndWait(() ->
+            keys.keyReleased(new KeyEvent(source, KeyEvent.KEY_RELEASED, 0, 0, KeyEvent.VK_ESCAPE, KeyEvent.CHAR_UNDEFINED)));
+        boolean[] canUndo = new boolean[1];
+        engine.submit(controller -> canUndo[0] = controller.canUndo()).get();
+        assertFalse(canUndo[0], "Resetting should clear the history");
+        assertNull(model.getCellOwner(0, 0));
+    }
+}
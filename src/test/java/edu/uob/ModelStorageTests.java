@@ -0,0 +1,237 @@
+package edu.uob;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Boards of different storage types are created here, so there is no shared setup method
+class ModelStorageTests {
+
+    OXOModel createModel(OXOModel.Storage storage, int rows, int columns, int players) {
+        OXOModel model = new OXOModel(rows, columns, 3, storage);
+        for (int i = 0; i < players; i++) {
+            model.addPlayer(new OXOPlayer((char)('A' + i)));
+        }
+        return model;
+    }
+
+    void assertSameCells(OXOModel expected, OXOModel actual) {
+        assertEquals(expected.getNumberOfRows(), actual.getNumberOfRows(), "Row numbers differ");
+        assertEquals(expected.getNumberOfColumns(), actual.getNumberOfColumns(), "Column numbers differ");
+        for (int i = 0; i < expected.getNumberOfRows(); i++) {
+            for (int j = 0; j < expected.getNumberOfColumns(); j++) {
+                OXOPlayer expectedOwner = expected.getCellOwner(i, j);
+                OXOPlayer actualOwner = actual.getCellOwner(i, j);
+                String failMsg = "Cell [" + i + "," + j + "] differs";
+                if (expectedOwner == null) assertNull(actualOwner, failMsg);
+                else assertEquals(expectedOwner.getPlayingLetter(), actualOwner.getPlayingLetter(), failMsg);
+            }
+        }
+    }
+
+    void assertCountersMatchCells(OXOModel model) {
+        int total = 0;
+        int[] byPlayer = new int[model.getNumberOfPlayers()];
+        for (int i = 0; i < model.getNumberOfRows(); i++) {
+            for (int j = 0; j < model.getNumberOfColumns(); j++) {
+                OXOPlayer owner = model.getCellOwner(i, j);
+                if (owner == null) continue;
+                total++;
+                for (int p = 0; p < byPlayer.length; p++) {
+                    if (model.getPlayerByNumber(p) == owner) byPlayer[p]++;
+                }
+            }
+        }
+        assertEquals(total, model.getNumberOfOccupiedCells(), "Occupied cell counter is wrong");
+        for (int p = 0; p < byPlayer.length; p++) {
+            assertEquals(byPlayer[p], model.getNumberOfOccupiedCells(model.getPlayerByNumber(p)), "Counter of player " + p + " is wrong");
+        }
+        assertEquals(total > 0, model.isGameInProcess(), "Game in process flag is wrong");
+        assertEquals(total == model.getNumberOfRows() * model.getNumberOfColumns(), model.isBoardFull(), "Board full flag is wrong");
+    }
+
+    @Test
+    void testUnknownPlayerLeavesTheCellAlone() {
+        for (OXOModel.Storage storage : OXOModel.Storage.values()) {
+            OXOModel model = createModel(storage, 3, 3, 2);
+            OXOPlayer owner = model.getPlayerByNumber(0);
+            model.setCellOwner(1, 1, owner);
+            long hash = model.getPositionHash();
+            assertThrows(IllegalArgumentException.class, () -> model.setCellOwner(1, 1, new OXOPlayer('Z')));
+            assertSame(owner, model.getCellOwner(1, 1), storage + " should keep the cell's owner after rejecting a player");
+            assertEquals(hash, model.getPositionHash());
+            assertCountersMatchCells(model);
+        }
+    }
+
+    @Test
+    void testBitboardMatchesListStorage() {
+        Random random = new Random(42);
+        OXOModel list = createModel(OXOModel.Storage.LIST, 3, 3, 3);
+        OXOModel bits = createModel(OXOModel.Storage.BITBOARD, 3, 3, 3);
+        OXOModel sparse = createModel(OXOModel.Storage.SPARSE, 3, 3, 3);
+        for (int step = 0; step < 2000; step++) {
+            int action = random.nextInt(10);
+            // The sparse board has no cap, so only grow it while the others can still follow
+            if (action == 0) { if (list.getNumberOfRows() < 9) sparse.addRow(); list.addRow(); bits.addRow(); }
+            else if (action == 1) { if (list.getNumberOfColumns() < 9) sparse.addColumn(); list.addColumn(); bits.addColumn(); }
+            else if (action == 2) { list.removeRow(); bits.removeRow(); sparse.removeRow(); }
+            else if (action == 3) { list.removeColumn(); bits.removeColumn(); sparse.removeColumn(); }
+            else if (step % 97 == 0) { list.reset(); bits.reset(); sparse.reset(); }
+            else {
+                int row = random.nextInt(list.getNumberOfRows());
+                int col = random.nextInt(list.getNumberOfColumns());
+                int player = random.nextInt(4);
+                list.setCellOwner(row, col, player == 3 ? null : list.getPlayerByNumber(player));
+                bits.setCellOwner(row, col, player == 3 ? null : bits.getPlayerByNumber(player));
+                sparse.setCellOwner(row, col, player == 3 ? null : sparse.getPlayerByNumber(player));
+            }
+            assertSameCells(list, bits);
+            assertSameCells(list, sparse);
+            assertCountersMatchCells(sparse);
+            assertCountersMatchCells(list);
+            assertCountersMatchCells(bits);
+        }
+    }
+
+    @Test
+    void testBitboardWinThroughController() throws OXOMoveException {
+        OXOModel model = createModel(OXOModel.Storage.BITBOARD, 3, 3, 2);
+        OXOController controller = new OXOController(model);
+        controller.handleIncomingCommand("a1");
+        controller.handleIncomingCommand("b1");
+        controller.handleIncomingCommand("a2");
+        controller.handleIncomingCommand("b2");
+        controller.handleIncomingCommand("a3");
+        assertEquals(model.getPlayerByNumber(0), model.getWinner(), "First player should have won on a bitboard");
+    }
+
+    int longestLineThrough(OXOModel model, int row, int col) {
+        OXOPlayer owner = model.getCellOwner(row, col);
+        int[][] steps = { {0, 1}, {1, 0}, {1, 1}, {1, -1} };
+        int longest = 0;
+        for (int[] step : steps) {
+            int length = 1;
+            for (int sign = -1; sign <= 1; sign += 2) {
+                int r = row + sign * step[0];
+                int c = col + sign * step[1];
+                while (r >= 0 && c >= 0 && r < model.getNumberOfRows() && c < model.getNumberOfColumns() && model.getCellOwner(r, c) == owner) {
+                    length++;
+                    r += sign * step[0];
+                    c += sign * step[1];
+                }
+            }
+            longest = Math.max(longest, length);
+        }
+        return longest;
+    }
+
+    @Test
+    void testRunIndexMatchesScan() {
+        Random random = new Random(7);
+        for (OXOModel.Storage storage : new OXOModel.Storage[] { OXOModel.Storage.LIST, OXOModel.Storage.BITBOARD }) {
+            OXOModel model = createModel(storage, 4, 4, 2);
+            for (int step = 0; step < 5000; step++) {
+                int action = random.nextInt(40);
+                if (action == 0) model.addRow();
+                else if (action == 1) model.addColumn();
+                else if (action == 2) model.removeRow();
+                else if (action == 3) model.removeColumn();
+                else if (action == 4) model.reset();
+                else {
+                    int row = random.nextInt(model.getNumberOfRows());
+                    int col = random.nextInt(model.getNumberOfColumns());
+                    int player = random.nextInt(5);
+                    OXOPlayer previous = model.getCellOwner(row, col);
+                    model.setCellOwner(row, col, player >= 2 ? model.getPlayerByNumber(player % 2) : null);
+                    if (model.getCellOwner(row, col) != null && model.getCellOwner(row, col) != previous) {
+                        assertEquals(longestLineThrough(model, row, col), model.getLastClaimRunLength(row, col), "Run index disagrees with a scan");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSparseBoardBeyondNineByNine() throws OXOMoveException {
+        OXOModel model = createModel(OXOModel.Storage.SPARSE, 1000, 1000, 2);
+        model.setWinThreshold(5);
+        OXOController controller = new OXOController(model);
+        // Player A plays along row "zz" (702), player B a long way off
+        for (int i = 0; i < 4; i++) {
+            controller.handleIncomingCommand("zz" + (500 + i));
+            controller.handleIncomingCommand("b" + (10 + 2 * i));
+        }
+        assertNull(model.getWinner(), "Nobody should have won yet");
+        controller.handleIncomingCommand("ZZ504");
+        assertEquals(model.getPlayerByNumber(0), model.getWinner(), "Five in a row on row zz should win");
+        assertEquals(model.getPlayerByNumber(0), model.getCellOwner(701, 503), "zz504 should be row 701, column 503");
+        assertEquals("zz504", OXOController.cellIdentifier(701, 503), "Identifier should round trip");
+
+        model.addRow();
+        assertEquals(1001, model.getNumberOfRows(), "Sparse boards are not capped at 9 rows");
+    }
+
+    @Test
+    void testSparseBoardIdentifierErrors() {
+        OXOModel model = createModel(OXOModel.Storage.SPARSE, 100, 100, 2);
+        OXOController controller = new OXOController(model);
+        assertThrows(OXOMoveException.InvalidIdentifierLengthException.class, () -> controller.handleIncomingCommand("a"));
+        assertThrows(OXOMoveException.InvalidIdentifierLengthException.class, () -> controller.handleIncomingCommand("abc"));
+        assertThrows(OXOMoveException.InvalidIdentifierCharacterException.class, () -> controller.handleIncomingCommand("12"));
+        assertThrows(OXOMoveException.InvalidIdentifierCharacterException.class, () -> controller.handleIncomingCommand("a0"));
+        assertThrows(OXOMoveException.InvalidIdentifierCharacterException.class, () -> controller.handleIncomingCommand("a1b"));
+        assertThrows(OXOMoveException.OutsideCellRangeException.class, () -> controller.handleIncomingCommand("a101"));
+        assertThrows(OXOMoveException.OutsideCellRangeException.class, () -> controller.handleIncomingCommand("zz1"));
+    }
+
+    // Owners are kept in a byte with 0 for empty cells, which leaves room for 127 players
+    @Test
+    void testSparseBoardPlayerLimit() {
+        OXOModel model = createModel(OXOModel.Storage.SPARSE, 3, 3, 128);
+        OXOPlayer last = model.getPlayerByNumber(126);
+        model.setCellOwner(0, 0, last);
+        assertSame(last, model.getCellOwner(0, 0));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> model.setCellOwner(1, 1, model.getPlayerByNumber(127)));
+        assertEquals("Sparse boards support at most 127 players", exception.getMessage());
+        assertNull(model.getCellOwner(1, 1));
+    }
+
+    @Test
+    void testPositionHashFollowsPosition() throws OXOMoveException {
+        OXOModel first = createModel(OXOModel.Storage.LIST, 3, 3, 2);
+        OXOModel second = createModel(OXOModel.Storage.BITBOARD, 3, 3, 2);
+        OXOController firstController = new OXOController(first);
+        OXOController secondController = new OXOController(second);
+        long emptyHash = first.getPositionHash();
+        assertEquals(emptyHash, second.getPositionHash(), "Empty boards should hash the same");
+
+        // Same cells reached through different move orders
+        firstController.handleIncomingCommand("a1");
+        firstController.handleIncomingCommand("b2");
+        firstController.handleIncomingCommand("c3");
+        secondController.handleIncomingCommand("c3");
+        secondController.handleIncomingCommand("b2");
+        secondController.handleIncomingCommand("a1");
+        assertEquals(first.getPositionHash(), second.getPositionHash(), "Transposed move orders should hash the same");
+        assertNotEquals(emptyHash, first.getPositionHash(), "Moves should change the hash");
+
+        first.addRow();
+        assertNotEquals(second.getPositionHash(), first.getPositionHash(), "Dimensions should be part of the hash");
+        first.removeRow();
+        assertEquals(second.getPositionHash(), first.getPositionHash(), "Removing the row again should restore the hash");
+
+        firstController.increaseWinThreshold();
+        assertNotEquals(second.getPositionHash(), first.getPositionHash(), "Threshold should be part of the hash");
+
+        first.reset();
+        second.reset();
+        first.setWinThreshold(3);
+        assertEquals(emptyHash, first.getPositionHash(), "Reset should bring back the empty board hash");
+        first.setCurrentPlayerNumber(1);
+        assertNotEquals(emptyHash, first.getPositionHash(), "Current player should be part of the hash");
+    }
+}
@@ -0,0 +1,109 @@
+package edu.uob;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloPlayerTests {
+
+    OXOModel createModel(OXOModel.Storage storage, int rows, int columns, int threshold, int players) {
+        OXOModel model = new OXOModel(rows, columns, threshold, storage);
+        for (int i = 0; i < players; i++) {
+            model.addPlayer(new OXOPlayer((char)('A' + i)));
+        }
+        return model;
+    }
+
+    String chooseMove(OXOModel model) {
+        OXOMonteCarloPlayer player = new OXOMonteCarloPlayer(ForkJoinPool.commonPool(), 5000, 20000);
+        String timeoutComment = "Monte Carlo player took too long to respond";
+        return assertTimeoutPreemptively(Duration.ofMillis(10000), () -> player.chooseMove(model), timeoutComment);
+    }
+
+    @Test
+    void testPlayerTakesImmediateWin() throws OXOMoveException {
+        OXOModel model = createModel(OXOModel.Storage.LIST, 3, 3, 3, 2);
+        OXOController controller = new OXOController(model);
+        controller.handleIncomingCommand("a1");
+        controller.handleIncomingCommand("b1");
+        controller.handleIncomingCommand("a2");
+        controller.handleIncomingCommand("b2");
+        assertEquals("a3", chooseMove(model), "The winning move should be chosen");
+    }
+
+    @Test
+    void testPlayerBlocksThreat() throws OXOMoveException {
+        OXOModel model = createModel(OXOModel.Storage.LIST, 3, 3, 3, 2);
+        OXOController controller = new OXOController(model);
+        controller.handleIncomingCommand("a1");
+        controller.handleIncomingCommand("b2");
+        controller.handleIncomingCommand("a2");
+        assertEquals("a3", chooseMove(model), "The second player has to block a3");
+    }
+
+    @Test
+    void testThreePlayerGamePlaysToTheEnd() throws OXOMoveException {
+        OXOModel model = createModel(OXOModel.Storage.BITBOARD, 6, 6, 4, 3);
+        OXOController controller = new OXOController(model);
+        OXOMonteCarloPlayer player = new OXOMonteCarloPlayer(ForkJoinPool.commonPool(), 200, 2000);
+        for (String move = player.chooseMove(model); move != null; move = player.chooseMove(model)) {
+            int occupied = model.getNumberOfOccupiedCells();
+            controller.handleIncomingCommand(move);
+            assertEquals(occupied + 1, model.getNumberOfOccupiedCells(), "Every suggested move should claim an empty cell");
+        }
+        assertTrue(model.getWinner() != null || model.isGameDrawn(), "Moves should only run out once the game is over");
+    }
+
+    @Test
+    void testNodeBudgetBoundsTheTrees() throws OXOMoveException {
+        OXOModel model = createModel(OXOModel.Storage.LIST, 3, 3, 3, 2);
+        OXOController controller = new OXOController(model);
+        OXOMonteCarloPlayer player = new OXOMonteCarloPlayer(ForkJoinPool.commonPool(), 0, 20000, 256);
+        controller.handleIncomingCommand("a1");
+        controller.handleIncomingCommand("b2");
+        controller.handleIncomingCommand("a2");
+        assertEquals("a3", player.chooseMove(model), "A small tree should still see the threat");
+        OXOMonteCarloPlayer tiny = new OXOMonteCarloPlayer(ForkJoinPool.commonPool(), 0, 1000, 1);
+        for (String move = tiny.chooseMove(model); move != null; move = tiny.chooseMove(model)) {
+            controller.handleIncomingCommand(move);
+        }
+        assertTrue(model.getWinner() != null || model.isGameDrawn(), "Without room for a tree the game should still end");
+        assertThrows(IllegalArgumentException.class, () -> new OXOMonteCarloPlayer(ForkJoinPool.commonPool(), 0, 1000, 0));
+    }
+
+    // Four workers and five moves need 24 nodes just to expand their roots, far more than the budget
+    @Test
+    void testNodeBudgetSmallerThanTheRootsStillSearches() throws OXOMoveException {
+        OXOModel model = createModel(OXOModel.Storage.LIST, 3, 3, 3, 2);
+        OXOController controller = new OXOController(model);
+        controller.handleIncomingCommand("a1");
+        controller.handleIncomingCommand("b1");
+        controller.handleIncomingCommand("c3");
+        controller.handleIncomingCommand("b2");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            OXOMonteCarloPlayer player = new OXOMonteCarloPlayer(pool, 0, 20000, 4);
+            assertEquals("b3", player.chooseMove(model), "Only b3 stops the second player winning, not the first empty cell a2");
+            assertEquals(20000, player.getLastIterations());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testPlayerWorksOnLargeSparseBoard() throws OXOMoveException {
+        OXOModel model = createModel(OXOModel.Storage.SPARSE, 500, 500, 3, 2);
+        OXOController controller = new OXOController(model);
+        controller.handleIncomingCommand("jb300");
+        controller.handleIncomingCommand("ja1");
+        controller.handleIncomingCommand("jb301");
+        controller.handleIncomingCommand("ja2");
+        String move = chooseMove(model);
+        assertTrue(move.equals("jb299") || move.equals("jb302"), "The open line far from the corner should be completed, got " + move);
+        controller.handleIncomingCommand(move);
+        assertEquals(model.getPlayerByNumber(0), model.getWinner(), "Playing the suggested move should win the live game");
+    }
+}
@@ -0,0 +1,103 @@
+package edu.uob;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedModelTests {
+
+    OXOModel createModel(int rows, int columns, char... letters) {
+        OXOModel model = new OXOModel(rows, columns, 3);
+        for (char letter : letters) {
+            model.addPlayer(new OXOPlayer(letter));
+        }
+        return model;
+    }
+
+    void assertSameState(OXOModel expected, OXOModel actual) {
+        assertEquals(expected.getNumberOfRows(), actual.getNumberOfRows());
+        assertEquals(expected.getNumberOfColumns(), actual.getNumberOfColumns());
+        assertEquals(expected.getWinThreshold(), actual.getWinThreshold());
+        assertEquals(expected.getNumberOfPlayers(), actual.getNumberOfPlayers());
+        assertEquals(expected.getCurrentPlayerNumber(), actual.getCurrentPlayerNumber());
+        assertEquals(expected.isGameDrawn(), actual.isGameDrawn());
+        assertEquals(expected.getPositionHash(), actual.getPositionHash(), "The boards should be the same");
+        for (int p = 0; p < expected.getNumberOfPlayers(); p++) {
+            assertEquals(expected.getPlayerByNumber(p).getPlayingLetter(), actual.getPlayerByNumber(p).getPlayingLetter());
+        }
+        char winner = expected.getWinner() == null ? 0 : expected.getWinner().getPlayingLetter();
+        assertEquals(winner, actual.getWinner() == null ? 0 : actual.getWinner().getPlayingLetter());
+    }
+
+    @Test
+    void testNineByNineGameFitsInThirtyBytes() throws OXOMoveException {
+        OXOModel model = createModel(9, 9, 'X', 'O');
+        OXOController controller = new OXOController(model);
+        for (String move : new String[] { "a1", "i9", "b2", "e6", "c3" }) {
+            controller.handleIncomingCommand(move);
+        }
+        byte[] packed = OXOPackedModel.pack(model);
+        assertEquals(OXOPackedModel.packedSize(model), packed.length);
+        assertTrue(packed.length <= 30, "Took " + packed.length + " bytes");
+        OXOPackedModel view = OXOPackedModel.wrap(ByteBuffer.wrap(packed));
+        assertEquals(0, view.getCellOwnerNumber(0, 0));
+        assertEquals(1, view.getCellOwnerNumber(8, 8));
+        assertEquals(-1, view.getCellOwnerNumber(8, 7));
+        assertEquals(0, view.getWinnerNumber(), "X should have won");
+        assertEquals('O', view.getPlayingLetter(1));
+        assertSameState(model, view.toModel());
+    }
+
+    @Test
+    void testManyPlayersAndUnevenCellWidths() throws OXOMoveException {
+        // Five players take three bits a cell, so cells straddle byte boundaries
+        OXOModel model = createModel(7, 8, 'A', 'B', 'C', 'D', 'E');
+        OXOController controller = new OXOController(model);
+        controller.increaseWinThreshold();
+        for (int cell = 0; cell < 40; cell += 3) {
+            controller.handleIncomingCommand(OXOController.cellIdentifier(cell / 8, cell % 8));
+        }
+        OXOPackedModel view = OXOPackedModel.wrap(ByteBuffer.wrap(OXOPackedModel.pack(model)));
+        for (int row = 0; row < 7; row++) {
+            for (int col = 0; col < 8; col++) {
+                OXOPlayer owner = model.getCellOwner(row, col);
+                int expected = owner == null ? -1 : owner.getPlayingLetter() - 'A';
+                assertEquals(expected, view.getCellOwnerNumber(row, col), "Cell " + row + ", " + col);
+            }
+        }
+        assertSameState(model, view.toModel(OXOModel.Storage.BITBOARD));
+    }
+
+    @Test
+    void testModelsPackBackToBackInOneBuffer() {
+        OXOModel first = createModel(3, 3, 'X', 'O');
+        first.setCellOwner(1, 1, first.getPlayerByNumber(0));
+        first.setCurrentPlayerNumber(1);
+        OXOModel second = createModel(4, 5, 'X', 'O', 'Z');
+        second.setCellOwner(3, 4, second.getPlayerByNumber(2));
+        second.setGameDrawn();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+        buffer.put((byte) 42);
+        OXOPackedModel.pack(first, buffer);
+        OXOPackedModel.pack(second, buffer);
+        int end = buffer.position();
+        buffer.flip().position(1);
+        OXOPackedModel firstView = OXOPackedModel.wrap(buffer);
+        OXOPackedModel secondView = OXOPackedModel.wrap(buffer);
+        assertEquals(end, buffer.position(), "Wrapping should move past both models");
+        assertSameState(first, firstView.toModel());
+        assertSameState(second, secondView.toModel());
+        assertEquals(2, secondView.getCellOwnerNumber(3, 4));
+    }
+
+    @Test
+    void testTruncatedBufferIsRejected() {
+        OXOModel model = createModel(9, 9, 'X', 'O');
+        byte[] packed = OXOPackedModel.pack(model);
+        ByteBuffer truncated = ByteBuffer.wrap(packed, 0, packed.length - 1);
+        assertThrows(BufferUnderflowException.class, () -> OXOPackedModel.wrap(truncated));
+    }
+}
@@ -0,0 +1,163 @@
+package edu.uob;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RendererTests {
+    private OXOModel model;
+    private OXOController controller;
+
+    @BeforeAll
+    static void headless() {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    @BeforeEach
+    void setup() {
+        model = new OXOModel(3, 3, 3);
+        model.addPlayer(new OXOPlayer('X'));
+        model.addPlayer(new OXOPlayer('O'));
+        controller = new OXOController(model);
+    }
+
+    @Test
+    void testText() throws OXOMoveException, IOException {
+        OXORenderer renderer = new OXORenderer(250, 300);
+        controller.handleIncomingCommand("a1");
+        controller.handleIncomingCommand("a3");
+        controller.handleIncomingCommand("b2");
+        String expected = """
+               1   2   3
+            a  X |   | O
+              ---+---+---
+            b    | X |
+              ---+---+---
+            c    |   |
+            Player O's turn
+            """;
+        assertEquals(expected, renderer.renderText(model).toString());
+        StringWriter written = new StringWriter();
+        renderer.writeText(model, written);
+        assertEquals(expected, written.toString());
+        controller.handleIncomingCommand("c1");
+        controller.handleIncomingCommand("c3");
+        assertTrue(renderer.renderText(model).toString().endsWith("c  O |   | X\nPlayer X is the winner !\n"));
+    }
+
+    @Test
+    void testTextBufferGrowsWithTheBoard() {
+        OXORenderer renderer = new OXORenderer(250, 300);
+        model = new OXOModel(9, 9, 3);
+        model.addPlayer(new OXOPlayer('X'));
+        String text = renderer.renderText(model).toString();
+        assertEquals(2 * 9 + 1, text.lines().count());
+        assertTrue(text.startsWith("   1   2   3   4   5   6   7   8   9\n"));
+    }
+
+    @Test
+    void testImageMatchesTheView() throws OXOMoveException, IOException {
+        controller.handleIncomingCommand("a1");
+        controller.handleIncomingCommand("c3");
+        OXOView view = new OXOView(model);
+        view.setSize(250, 300);
+        BufferedImage painted = new BufferedImage(250, 300, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = painted.createGraphics();
+        view.paintComponent(graphics);
+        graphics.dispose();
+        OXORenderer renderer = new OXORenderer(250, 300);
+        assertSamePixels(painted, renderer.renderImage(model));
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        renderer.writePng(model, png);
+        assertSamePixels(painted, ImageIO.read(new ByteArrayInputStream(png.toByteArray())));
+    }
+
+    // In the game window's board area a 9x9 board's rows are closer together than letters are tall, so the letters of
+    // one row overlap those of the row above, and painting them must not rub any of those out
+    @Test
+    void testOverlappingLettersAreAllPainted() {
+        OXORenderer renderer = new OXORenderer(250, 230);
+        model = new OXOModel(9, 9, 3);
+        model.addPlayer(new OXOPlayer('X'));
+        model.setCellOwner(0, 0, model.getPlayerByNumber(0));
+        int[] topRowOnly = renderer.renderImage(model).getRGB(0, 0, 250, 230, null, 0, 250);
+        model.setCellOwner(1, 0, model.getPlayerByNumber(0));
+        int[] bothRows = renderer.renderImage(model).getRGB(0, 0, 250, 230, null, 0, 250);
+        for (int i = 0; i < topRowOnly.length; i++) {
+            if ((topRowOnly[i] & 0xFF) < 0x80) {
+                assertTrue((bothRows[i] & 0xFF) < 0x80, "Pixel " + i % 250 + "," + i / 250 + " of a1 was painted over");
+            }
+        }
+    }
+
+    void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int x = 0; x < expected.getWidth(); x++) {
+            for (int y = 0; y < expected.getHeight(); y++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel " + x + "," + y + " differs");
+            }
+        }
+    }
+
+    // Every thread draws with its own renderer, and gets what one thread would have drawn
+    @Test
+    void testRenderingInParallel() throws OXOMoveException, InterruptedException, ExecutionException {
+        String[] moves = {"a1", "b2", "c3", "a2", "a3", "b3", "c1", "c2", "b1"};
+        List<String> expected = new ArrayList<>();
+        OXORenderer renderer = new OXORenderer(120, 140);
+        for (int game = 0; game < moves.length; game++) {
+            expected.add(render(renderer, playedGame(moves, game)));
+        }
+        ThreadLocal<OXORenderer> renderers = ThreadLocal.withInitial(() -> new OXORenderer(120, 140));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                int game = i % moves.length;
+                results.add(executor.submit(() -> render(renderers.get(), playedGame(moves, game))));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(expected.get(i % moves.length), results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // The text with a hash of the image's pixels
+    String render(OXORenderer renderer, OXOModel played) {
+        int[] pixels = ((DataBufferInt) renderer.renderImage(played).getRaster().getDataBuffer()).getData();
+        return renderer.renderText(played) + " " + Arrays.hashCode(pixels);
+    }
+
+    OXOModel playedGame(String[] moves, int length) throws OXOMoveException {
+        OXOModel played = new OXOModel(3, 3, 3);
+        played.addPlayer(new OXOPlayer('X'));
+        played.addPlayer(new OXOPlayer('O'));
+        OXOController playing = new OXOController(played);
+        for (int i = 0; i < length && played.getWinner() == null; i++) {
+            playing.handleIncomingCommand(moves[i]);
+        }
+        return played;
+    }
+}
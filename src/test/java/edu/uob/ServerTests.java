@@ -0,0 +1,211 @@
+package edu.uob;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(10)
+class ServerTests {
+    private OXOSessionManager sessions;
+    private OXOServer server;
+
+    static class Client implements AutoCloseable {
+        final Socket socket;
+        final OutputStream output;
+        final BufferedReader input;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            output = socket.getOutputStream();
+            input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        }
+
+        void send(String text) throws IOException {
+            output.write(text.getBytes(StandardCharsets.US_ASCII));
+            output.flush();
+        }
+
+        String ask(String line) throws IOException {
+            send(line + "\n");
+            return input.readLine();
+        }
+
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @BeforeEach
+    void setup() throws IOException {
+        sessions = new OXOSessionManager();
+        server = new OXOServer(sessions, 0, 2);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void testPlayingAGame() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            assertEquals("error no game, create or join one first", client.ask("move a1"));
+            assertEquals("ok 1", client.ask("create"));
+            assertEquals("ok", client.ask("move a1"));
+            assertEquals("error CELL_ALREADY_TAKEN Cell [1,1] has already been claimed", client.ask("move a1"));
+            assertEquals("error INVALID_ROW_CHARACTER 1 is not a valid character for a ROW", client.ask("move 11"));
+            assertEquals("ok", client.ask("move b1"));
+            assertEquals("state 3 3 3 playing X X..O.....", client.ask("state"));
+            assertEquals("ok 4 3", client.ask("resize 4 3"));
+            assertEquals("ok 4", client.ask("threshold 4"));
+            assertEquals("ok", client.ask("undo"));
+            assertEquals("ok", client.ask("undo"));
+            assertEquals("state 3 3 3 playing X X..O.....", client.ask("state"), "The resize should have been undone too");
+            assertEquals("ok", client.ask("reset"));
+            assertEquals("error nothing to undo", client.ask("undo"));
+            assertEquals("error unknown command", client.ask("dance"));
+            assertEquals("ok", client.ask("quit"));
+            assertNull(client.input.readLine(), "Quitting should close the connection");
+        }
+    }
+
+    @Test
+    void testTwoConnectionsShareAGame() throws IOException {
+        try (Client x = new Client(server.getPort()); Client o = new Client(server.getPort())) {
+            String created = x.ask("create 4 4 3 2");
+            assertTrue(created.startsWith("ok "), created);
+            String id = created.substring(3);
+            assertEquals("ok " + id, o.ask("join " + id));
+            assertEquals("ok", x.ask("move a1"));
+            assertEquals("ok", o.ask("move b1"));
+            assertEquals("ok", x.ask("move a2"));
+            assertEquals("ok", o.ask("move b2"));
+            assertEquals("ok", x.ask("move a3"));
+            assertEquals("state 4 4 3 won X XXX.OO..........", o.ask("state"));
+            assertEquals("error GAME_OVER", o.ask("move c1"));
+            assertEquals("error no such game", o.ask("join 99"));
+        }
+    }
+
+    @Test
+    void testLinesSplitAndJoinedAcrossPackets() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.send("cre");
+            client.send("ate 3 3 3 3\r\nmove b2\nmove c3\n  state  \n");
+            assertEquals("ok 1", client.input.readLine());
+            assertEquals("ok", client.input.readLine());
+            assertEquals("ok", client.input.readLine());
+            assertEquals("state 3 3 3 playing A ....X...O", client.input.readLine());
+        }
+    }
+
+    @Test
+    void testPipelinedCommandsRunInOrder() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.send("create\nmove a1\nmove a1\naddRow\nincreaseWinThreshold\nmove d3\nremoveRow\nstate\nmove z\n");
+            assertEquals("ok 1", client.input.readLine());
+            assertEquals("ok", client.input.readLine());
+            assertTrue(client.input.readLine().startsWith("error CELL_ALREADY_TAKEN"), "Errors should stay with their command");
+            assertEquals("ok 4 3", client.input.readLine());
+            assertEquals("ok 4", client.input.readLine());
+            assertEquals("ok", client.input.readLine());
+            assertEquals("ok 4 3", client.input.readLine(), "The last row is taken, so it should stay");
+            assertEquals("state 4 3 4 playing X X..........O", client.input.readLine());
+            assertTrue(client.input.readLine().startsWith("error INVALID_IDENTIFIER_LENGTH"));
+        }
+    }
+
+    @Test
+    void testRepliesLargerThanTheOutputBufferAreAllSent() throws IOException {
+        int count = 2000;
+        try (Client client = new Client(server.getPort())) {
+            client.ask("create");
+            client.send("STATE\n".repeat(count));
+            for (int i = 0; i < count; i++) {
+                assertEquals("state 3 3 3 playing X .........", client.input.readLine(), "Reply " + i);
+            }
+            assertEquals("ok", client.ask("move b2"));
+        }
+    }
+
+    @Test
+    void testBadArgumentsAreRejected() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            assertTrue(client.ask("create 10 3 3 2").startsWith("error usage"));
+            assertTrue(client.ask("create 3 3").startsWith("error usage"));
+            assertTrue(client.ask("create 3 3 3 30").startsWith("error"));
+            assertTrue(client.ask("join x").startsWith("error usage"));
+            assertEquals(0, sessions.getNumberOfSessions());
+        }
+    }
+
+    @Test
+    void testThresholdIsBoundedByTheBoard() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.ask("create");
+            assertTrue(client.ask("threshold 1000000000000").startsWith("error usage"));
+            assertTrue(client.ask("threshold 4").startsWith("error usage"), "A 3x3 board can't need 4 in a row");
+            assertEquals("ok 4 4", client.ask("resize 4 4"));
+            assertEquals("ok 4", client.ask("threshold 4"));
+            assertEquals("ok", client.ask("undo"));
+            assertEquals("state 4 4 3 playing X ................", client.ask("state"), "One undo should take the change back");
+        }
+    }
+
+    // A connection that joined a game before it was removed is told it is gone, rather than playing on in it
+    @Test
+    void testRemovedGameIsLetGoOf() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            assertEquals("ok 1", client.ask("create"));
+            assertEquals("ok", client.ask("move a1"));
+            assertTrue(sessions.remove(1));
+            assertEquals("error no such game", client.ask("move b1"));
+            assertEquals("error no game, create or join one first", client.ask("state"));
+            assertEquals("error no such game", client.ask("join 1"));
+        }
+    }
+
+    // One connection running into a bug is closed, and the others on the same thread carry on
+    @Test
+    void testFailingConnectionLeavesTheOthersConnected() throws IOException {
+        server.close();
+        sessions = new OXOSessionManager() {
+            @Override
+            public OXOSession get(long id) {
+                if (id == 13) throw new IllegalStateException("unlucky");
+                return super.get(id);
+            }
+        };
+        server = new OXOServer(sessions, 0, 1);
+        server.start();
+        try (Client failing = new Client(server.getPort()); Client other = new Client(server.getPort())) {
+            assertEquals("ok 1", other.ask("create"));
+            assertEquals("ok 1", failing.ask("join 1"));
+            failing.send("move a1\njoin 13\n");
+            assertNull(failing.input.readLine(), "The failing connection should be closed, replies still unsent with it");
+            assertEquals("state 3 3 3 playing O X........", other.ask("state"));
+            assertEquals("ok", other.ask("move b2"));
+        }
+    }
+
+    @Test
+    void testOverlongLineClosesTheConnection() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.send("x".repeat(OXOServer.BUFFER_SIZE + 10));
+            assertEquals("error line too long", client.input.readLine());
+            assertNull(client.input.readLine());
+        }
+    }
+}
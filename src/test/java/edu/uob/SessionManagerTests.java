@@ -0,0 +1,118 @@
+package edu.uob;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionManagerTests {
+
+    @Test
+    void testCreateAndLookup() {
+        OXOSessionManager manager = new OXOSessionManager();
+        OXOSession first = manager.create(3, 3, 3, 2);
+        OXOSession second = manager.create(4, 4, 3, 3);
+        assertNotEquals(first.getId(), second.getId(), "Sessions should get different ids");
+        assertSame(first, manager.get(first.getId()));
+        assertEquals('A', second.getModel().getPlayerByNumber(2).getPlayingLetter(), "Third player should be A");
+        assertEquals(OXOMoveResult.OK, first.tryMove("a1"));
+        assertNull(second.getModel().getCellOwner(0, 0), "Moves should only change their own session");
+        assertTrue(manager.remove(first.getId()));
+        assertNull(manager.get(first.getId()), "Removed sessions should not be found");
+    }
+
+    @Test
+    void testIdleSessionsExpire() {
+        AtomicLong now = new AtomicLong();
+        OXOSessionManager manager = new OXOSessionManager(now::get);
+        OXOSession idle = manager.create(3, 3, 3, 2);
+        OXOSession busy = manager.create(3, 3, 3, 2);
+        OXOSession locked = manager.create(3, 3, 3, 2);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        manager.get(busy.getId());
+        locked.lock();
+        try {
+            assertEquals(1, manager.expireIdleSessions(30, TimeUnit.SECONDS), "Only the idle, unlocked session should expire");
+        } finally {
+            locked.unlock();
+        }
+        assertNull(manager.get(idle.getId()));
+        assertNotNull(manager.get(busy.getId()));
+        assertNotNull(manager.get(locked.getId()));
+    }
+
+    @Test
+    void testConcurrentMovesStayConsistent() throws Exception {
+        OXOSessionManager manager = new OXOSessionManager();
+        List<OXOSession> sessions = new ArrayList<>();
+        for (int i = 0; i < 16; i++) sessions.add(manager.create(9, 9, 10, 2));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> accepted = new ArrayList<>();
+            // Every thread tries every cell of every session, each cell should be claimed exactly once
+            for (int t = 0; t < 8; t++) {
+                accepted.add(executor.submit(() -> {
+                    int count = 0;
+                    for (OXOSession session : sessions) {
+                        for (int cell = 0; cell < 81; cell++) {
+                            if (session.tryMove(cell / 9, cell % 9) == OXOMoveResult.OK) count++;
+                        }
+                    }
+                    return count;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> future : accepted) total += future.get();
+            assertEquals(16 * 81, total, "Each cell should be claimed by exactly one thread");
+            for (OXOSession session : sessions) {
+                assertEquals(81, session.getModel().getNumberOfOccupiedCells());
+                assertTrue(session.getModel().isGameDrawn(), "A full board with an unreachable threshold is a draw");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testManySessionsAddedAndRemoved() {
+        OXOSessionManager manager = new OXOSessionManager();
+        List<OXOSession> sessions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) sessions.add(manager.create(3, 3, 3, 2));
+        for (int i = 0; i < sessions.size(); i += 3) assertTrue(manager.remove(sessions.get(i).getId()));
+        assertFalse(manager.remove(sessions.get(0).getId()), "A session can only be removed once");
+        for (int i = 0; i < sessions.size(); i++) {
+            if (i % 3 == 0) assertNull(manager.get(sessions.get(i).getId()), "Session " + i + " was removed");
+            else assertSame(sessions.get(i), manager.get(sessions.get(i).getId()), "Session " + i + " should still be found");
+        }
+        assertEquals(666, manager.getNumberOfSessions());
+        assertNull(manager.get(5000));
+        assertFalse(manager.touch(sessions.get(0)), "A removed session should not be usable by those still holding it");
+        assertTrue(manager.touch(sessions.get(1)));
+    }
+
+    // Expiry and lookups race on the session's last used time, and only one of them can win
+    @Test
+    void testFoundSessionsCannotExpire() {
+        AtomicLong now = new AtomicLong();
+        OXOSessionManager manager = new OXOSessionManager(now::get);
+        OXOSession found = manager.create(3, 3, 3, 2);
+        OXOSession expiring = manager.create(3, 3, 3, 2);
+        now.addAndGet(100);
+        long cutoff = now.get() - 50;
+        // A lookup touching the session after expiry looked at it, but before expiry marked it
+        assertSame(found, manager.get(found.getId()));
+        assertFalse(found.expire(cutoff), "A session that was just handed out should not expire");
+        // Expiry marking the session before the lookup touches it
+        assertTrue(expiring.expire(cutoff));
+        assertNull(manager.get(expiring.getId()), "An expired session should not be handed out, even before it is removed");
+        assertEquals(1, manager.expireIdleSessions(50, TimeUnit.NANOSECONDS));
+        assertSame(found, manager.get(found.getId()));
+    }
+}
@@ -0,0 +1,59 @@
+package edu.uob;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatorTests {
+
+    OXOSimulator createSimulator() {
+        return new OXOSimulator(ForkJoinPool.commonPool(), new SplittableRandom(42));
+    }
+
+    @Test
+    void testRandomStandardGames() throws OXOMoveException {
+        OXOSimulator.Stats stats = createSimulator().simulate(3, 3, 3, 2, 200_000);
+        assertEquals(200_000, stats.getGames(), "Every game should be counted once");
+        assertEquals(stats.getGames(), stats.getWins(0) + stats.getWins(1) + stats.getDraws(), "Every game should have one result");
+        // Uniformly random play on 3x3 is known to end 58.5% first player, 28.8% second player and 12.7% drawn
+        assertEquals(0.585, stats.getWinRate(0), 0.01, "First player win rate is off");
+        assertEquals(0.288, stats.getWinRate(1), 0.01, "Second player win rate is off");
+        assertEquals(0.127, stats.getDrawRate(), 0.01, "Draw rate is off");
+        assertTrue(stats.getAverageLength() >= 5 && stats.getAverageLength() <= 9, "Games last between 5 and 9 moves");
+        assertTrue(stats.getGamesPerSecond() > 0, "Throughput should be reported");
+    }
+
+    @Test
+    void testScriptedOpening() throws OXOMoveException {
+        // After a1 b1 a2 b2 the first player can still lose the race for a3, but never to a full board
+        OXOSimulator.Stats stats = createSimulator().simulate(3, 3, 3, 2, 10_000, "a1", "b1", "a2", "b2");
+        assertTrue(stats.getWins(0) > 0 && stats.getWins(1) > 0, "Both players can still win");
+        assertTrue(stats.getAverageLength() <= 5, "Only five cells are left after the opening");
+        assertThrows(IllegalArgumentException.class, () -> createSimulator().simulate(3, 3, 3, 2, 1, "a1", "b1", "a2", "b2", "a3", "c1"));
+    }
+
+    @Test
+    void testPlayoutBoardFollowsControllerRules() throws OXOMoveException {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int game = 0; game < 500; game++) {
+            int players = 2 + game % 3;
+            OXOModel model = new OXOModel(6, 7, 3 + game % 3);
+            for (int p = 0; p < players; p++) model.addPlayer(new OXOPlayer((char) ('A' + p)));
+            OXOController controller = new OXOController(model);
+            OXOPlayoutBoard board = OXOPlayoutBoard.fromModel(model, 42);
+            int winner = OXOPlayoutBoard.NO_WINNER;
+            while (winner == OXOPlayoutBoard.NO_WINNER && board.getEmptyCount() > 0) {
+                int mover = board.getCurrentPlayer();
+                int cell = board.randomEmptyCell(random);
+                if (board.play(cell)) winner = mover;
+                controller.handleIncomingCommand(OXOController.cellIdentifier(cell / board.columns, cell % board.columns));
+            }
+            OXOPlayer expected = winner == OXOPlayoutBoard.NO_WINNER ? null : model.getPlayerByNumber(winner);
+            assertEquals(expected, model.getWinner(), "Playout board and controller should agree on the winner");
+            assertEquals(winner == OXOPlayoutBoard.NO_WINNER, model.isGameDrawn(), "Playout board and controller should agree on draws");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package edu.uob;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverTests {
+
+    OXOModel createModel(int rows, int columns, int threshold, int players) {
+        OXOModel model = new OXOModel(rows, columns, threshold);
+        for (int i = 0; i < players; i++) {
+            model.addPlayer(new OXOPlayer((char)('A' + i)));
+        }
+        return model;
+    }
+
+    OXOSolver.Result solve(OXOModel model) {
+        String timeoutComment = "Solver took too long to respond";
+        return assertTimeoutPreemptively(Duration.ofMillis(20000), () -> new OXOSolver().solve(model), timeoutComment);
+    }
+
+    @Test
+    void testStandardBoardIsDraw() {
+        OXOSolver.Result result = solve(createModel(3, 3, 3, 2));
+        assertEquals(0, result.getValue(), "Perfect play on 3x3 should be a draw");
+        assertNotNull(result.getCommand(), "The solver should suggest a move");
+    }
+
+    @Test
+    void testFourByFourThreeInARowIsFirstPlayerWin() {
+        OXOSolver.Result result = solve(createModel(4, 4, 3, 2));
+        assertTrue(result.getValue() > 0, "First player should win 4x4 with threshold 3");
+    }
+
+    @Test
+    void testSolverTakesImmediateWin() throws OXOMoveException {
+        OXOModel model = createModel(3, 3, 3, 2);
+        OXOController controller = new OXOController(model);
+        controller.handleIncomingCommand("a1");
+        controller.handleIncomingCommand("b1");
+        controller.handleIncomingCommand("a2");
+        controller.handleIncomingCommand("b2");
+        OXOSolver.Result result = solve(model);
+        assertEquals("a3", result.getCommand(), "The winning move should be chosen");
+        controller.handleIncomingCommand(result.getCommand());
+        assertEquals(model.getPlayerByNumber(0), model.getWinner(), "Playing the suggested move should win the live game");
+    }
+
+    @Test
+    void testSolverBlocksThreat() throws OXOMoveException {
+        OXOModel model = createModel(3, 3, 3, 2);
+        OXOController controller = new OXOController(model);
+        controller.handleIncomingCommand("a1");
+        controller.handleIncomingCommand("b2");
+        controller.handleIncomingCommand("a2");
+        OXOSolver.Result result = solve(model);
+        assertEquals("a3", result.getCommand(), "The second player has to block a3");
+        assertEquals(0, result.getValue(), "Blocking keeps the draw");
+    }
+
+    @Test
+    void testFinishedGameHasNoMove() throws OXOMoveException {
+        OXOModel model = createModel(3, 3, 3, 2);
+        OXOController controller = new OXOController(model);
+        for (String command : new String[] { "a1", "b1", "a2", "b2", "a3" }) {
+            controller.handleIncomingCommand(command);
+        }
+        OXOSolver.Result result = solve(model);
+        assertNull(result.getCommand(), "There is nothing to play once the game is won");
+        assertTrue(result.getValue() < 0, "The player to move has already lost");
+    }
+
+    @Test
+    void testThreePlayersLeaveModelUntouched() {
+        OXOModel model = createModel(3, 4, 3, 3);
+        long hash = model.getPositionHash();
+        OXOSolver.Result result = solve(model);
+        assertNotNull(result.getCommand(), "The solver should suggest a move");
+        assertEquals(hash, model.getPositionHash(), "Solving must not change the model");
+        assertEquals(0, model.getNumberOfOccupiedCells(), "Solving must not claim cells in the model");
+    }
+}
@@ -0,0 +1,91 @@
+package edu.uob;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTests {
+
+    @Test
+    void testStoreAndProbe() {
+        OXOTranspositionTable table = new OXOTranspositionTable(1000, OXOTranspositionTable.Replacement.DEPTH_PREFERRED);
+        assertEquals(1024, table.getNumberOfEntries(), "Size should be rounded up to a power of two");
+        assertEquals(OXOTranspositionTable.MISS, table.probe(12345L), "An empty table should miss");
+
+        table.store(12345L, -42, OXOTranspositionTable.UPPER_BOUND, 17, 80);
+        long entry = table.probe(12345L);
+        assertNotEquals(OXOTranspositionTable.MISS, entry, "A stored position should be found");
+        assertEquals(-42, OXOTranspositionTable.valueOf(entry), "Value should survive packing");
+        assertEquals(OXOTranspositionTable.UPPER_BOUND, OXOTranspositionTable.boundOf(entry), "Bound should survive packing");
+        assertEquals(17, OXOTranspositionTable.depthOf(entry), "Depth should survive packing");
+        assertEquals(80, OXOTranspositionTable.moveOf(entry), "Move should survive packing");
+
+        table.store(99L, 0, OXOTranspositionTable.EXACT, 0, -1);
+        assertEquals(-1, OXOTranspositionTable.moveOf(table.probe(99L)), "A missing move should read back as -1");
+        assertEquals(2, table.getHits(), "Two probes should have hit");
+        assertEquals(1, table.getMisses(), "One probe should have missed");
+    }
+
+    @Test
+    void testReplacementPolicies() {
+        // Keys 1 and 1 + 1024 share a slot in a table of 1024 entries
+        long first = 1L;
+        long second = 1L + 1024;
+        OXOTranspositionTable depthPreferred = new OXOTranspositionTable(1024, OXOTranspositionTable.Replacement.DEPTH_PREFERRED);
+        depthPreferred.store(first, 1, OXOTranspositionTable.EXACT, 10, 0);
+        depthPreferred.store(second, 2, OXOTranspositionTable.EXACT, 5, 0);
+        assertNotEquals(OXOTranspositionTable.MISS, depthPreferred.probe(first), "The deeper entry should be kept");
+        assertEquals(OXOTranspositionTable.MISS, depthPreferred.probe(second), "The shallower entry should be dropped");
+        assertEquals(1, depthPreferred.getCollisions(), "Probing the dropped key should count a collision");
+
+        OXOTranspositionTable alwaysReplace = new OXOTranspositionTable(1024, OXOTranspositionTable.Replacement.ALWAYS_REPLACE);
+        alwaysReplace.store(first, 1, OXOTranspositionTable.EXACT, 10, 0);
+        alwaysReplace.store(second, 2, OXOTranspositionTable.EXACT, 5, 0);
+        assertEquals(OXOTranspositionTable.MISS, alwaysReplace.probe(first), "The old entry should be replaced");
+        assertEquals(2, OXOTranspositionTable.valueOf(alwaysReplace.probe(second)), "The newest entry should be kept");
+    }
+
+    @Test
+    void testConcurrentWritersNeverMixEntries() throws InterruptedException {
+        OXOTranspositionTable table = new OXOTranspositionTable(64, OXOTranspositionTable.Replacement.ALWAYS_REPLACE);
+        List<Thread> threads = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 200000; i++) {
+                    long key = i % 500;
+                    // Every field is derived from the key, so an entry mixed from two writes would show up
+                    table.store(key, (int) key, OXOTranspositionTable.EXACT, (int) (key % 200), (int) key * 3);
+                    long entry = table.probe((i * 7L) % 500);
+                    if (entry == OXOTranspositionTable.MISS) continue;
+                    int value = OXOTranspositionTable.valueOf(entry);
+                    if (OXOTranspositionTable.moveOf(entry) != value * 3 || value != (i * 7L) % 500) {
+                        synchronized (failures) { failures.add("Mixed entry for key " + (i * 7L) % 500); }
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertTrue(failures.isEmpty(), "Probes should never return a torn entry: " + failures);
+    }
+
+    @Test
+    void testSolverSharesTableBetweenSolves() {
+        OXOTranspositionTable table = new OXOTranspositionTable(1 << 16, OXOTranspositionTable.Replacement.DEPTH_PREFERRED);
+        OXOSolver solver = new OXOSolver(ForkJoinPool.commonPool(), 1, table);
+        OXOModel model = new OXOModel(3, 3, 3);
+        model.addPlayer(new OXOPlayer('X'));
+        model.addPlayer(new OXOPlayer('O'));
+        long firstNodes = solver.solve(model).getNodes();
+        OXOSolver.Result second = solver.solve(model);
+        assertEquals(0, second.getValue(), "The answer should not change when the table is reused");
+        assertTrue(second.getNodes() < firstNodes, "A warm table should save work");
+        assertTrue(table.getHits() > 0, "The second solve should hit the table");
+    }
+}
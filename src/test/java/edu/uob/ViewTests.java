@@ -0,0 +1,119 @@
+package edu.uob;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ViewTests {
+    private OXOModel model;
+    private OXOController controller;
+    private RecordingView view;
+
+    // Notes the regions it is asked to repaint instead of painting them
+    static class RecordingView extends OXOView {
+        @Serial private static final long serialVersionUID = 1;
+        final List<Rectangle> repaints = new ArrayList<>();
+
+        RecordingView(OXOModel model) {
+            super(model);
+        }
+
+        @Override
+        public void repaint(long time, int x, int y, int width, int height) {
+            if (repaints != null) repaints.add(new Rectangle(x, y, width, height));
+        }
+    }
+
+    @BeforeAll
+    static void headless() {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    @BeforeEach
+    void setup() {
+        model = new OXOModel(3, 3, 3);
+        model.addPlayer(new OXOPlayer('X'));
+        model.addPlayer(new OXOPlayer('O'));
+        controller = new OXOController(model);
+        view = new RecordingView(model);
+        view.setSize(250, 300);
+        view.refresh();
+        view.repaints.clear();
+    }
+
+    @Test
+    void testNothingChangedPaintsNothing() {
+        view.refresh();
+        view.refresh();
+        assertTrue(view.repaints.isEmpty(), "Nothing has changed, so nothing should be painted");
+    }
+
+    @Test
+    void testMoveRepaintsItsCellAndTheMessage() throws OXOMoveException {
+        controller.handleIncomingCommand("b2");
+        view.refresh();
+        assertEquals(2, view.repaints.size(), "Only the cell and the message should be painted");
+        Rectangle cell = view.repaints.get(0);
+        assertTrue(cell.contains(125, 160), "The middle cell should be painted, not " + cell);
+        assertTrue(cell.width < 50 && cell.height < 50);
+        Rectangle message = view.repaints.get(1);
+        assertEquals(300, message.y + message.height, "The message should be along the bottom");
+        view.repaints.clear();
+        view.refresh();
+        assertTrue(view.repaints.isEmpty());
+    }
+
+    @Test
+    void testResizeRepaintsEverything() {
+        controller.addRow();
+        view.refresh();
+        assertEquals(List.of(new Rectangle(0, 0, 250, 300)), view.repaints);
+        view.repaints.clear();
+        view.setSize(300, 300);
+        view.refresh();
+        assertEquals(List.of(new Rectangle(0, 0, 300, 300)), view.repaints);
+    }
+
+    int darkPixels(BufferedImage image, int x, int y, int width, int height) {
+        int dark = 0;
+        for (int i = x; i < x + width; i++) {
+            for (int j = y; j < y + height; j++) {
+                if ((image.getRGB(i, j) & 0xFF) < 0x80) dark++;
+            }
+        }
+        return dark;
+    }
+
+    @Test
+    void testLettersArePaintedAgainInTheClip() throws OXOMoveException {
+        BufferedImage image = new BufferedImage(250, 300, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            view.paintComponent(graphics);
+            assertEquals(0, darkPixels(image, 105, 125, 40, 40), "The middle cell should start empty");
+            controller.handleIncomingCommand("b2");
+            view.paintComponent(graphics);
+            assertTrue(darkPixels(image, 105, 125, 40, 40) > 10, "X should have been painted in the middle cell");
+            controller.handleIncomingCommand("a1");
+            controller.undo();
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, 250, 300);
+            graphics.setClip(105, 125, 40, 40);
+            view.paintComponent(graphics);
+            assertTrue(darkPixels(image, 105, 125, 40, 40) > 10, "Painting the cell again should draw the same X");
+            assertEquals(0, darkPixels(image, 0, 260, 250, 40), "Only the clip should have been painted");
+        } finally {
+            graphics.dispose();
+        }
+    }
+}